@@ -0,0 +1,144 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 부하 테스트 드라이버 (의존성 없는 단일 파일, JDK 21: java loadtest/LoadTest.java ...)
+ * - 로그인해서 access 토큰을 받은 뒤 동시 사용자 수만큼 가상 스레드로 GET 을 반복
+ * - 실행 중 1초마다 서버 actuator 로 heap/non-heap 사용량과 live 스레드 수를 읽어 최댓값 기록
+ * - 끝나면 처리량(req/s), 지연 p50/p99, 오류 수, 메모리/스레드 최댓값을 한 줄로 출력
+ * 서버는 metrics 엔드포인트를 노출하고 rate-limit 를 끈 상태로 띄워야 합니다 (compare.sh 참고).
+ *
+ * 인자: 라벨 baseUrl 아이디 비밀번호 동시사용자수 초 경로
+ */
+public class LoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 7) {
+            System.err.println("usage: LoadTest <label> <baseUrl> <id> <password> <concurrency> <seconds> <path>");
+            System.exit(2);
+        }
+        String label = args[0];
+        String baseUrl = args[1];
+        int concurrency = Integer.parseInt(args[4]);
+        long seconds = Long.parseLong(args[5]);
+        String path = args[6];
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String token = login(client, baseUrl, args[2], args[3]);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        double[] maxima = new double[3]; // heap, non-heap, threads
+
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (System.nanoTime() < deadline) {
+                try {
+                    maxima[0] = Math.max(maxima[0], metric(client, baseUrl, token, "jvm.memory.used?tag=area:heap"));
+                    maxima[1] = Math.max(maxima[1], metric(client, baseUrl, token, "jvm.memory.used?tag=area:nonheap"));
+                    maxima[2] = Math.max(maxima[2], metric(client, baseUrl, token, "jvm.threads.live"));
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    // 샘플 하나 실패는 무시
+                }
+            }
+        });
+
+        long started = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < concurrency; u++) {
+                int user = u;
+                users.submit(() -> {
+                    long[] buffer = new long[1 << 12];
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() / 100 != 2) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, n * 2);
+                        }
+                        buffer[n++] = System.nanoTime() - t0;
+                    }
+                    latencies[user] = buffer;
+                    counts[user] = n;
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        sampler.join();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int u = 0; u < concurrency; u++) {
+            System.arraycopy(latencies[u], 0, all, offset, counts[u]);
+            offset += counts[u];
+        }
+        Arrays.sort(all);
+        System.out.printf("[%s] requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms "
+                + "maxHeap=%.0f MB maxNonHeap=%.0f MB maxThreads=%.0f%n",
+                label, total, errors.get(), total / elapsed, percentile(all, 0.50), percentile(all, 0.99),
+                maxima[0] / (1 << 20), maxima[1] / (1 << 20), maxima[2]);
+    }
+
+    private static String login(HttpClient client, String baseUrl, String id, String password) throws Exception {
+        String body = "{\"id\":\"" + id + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher m = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !m.find()) {
+            throw new IllegalStateException("login failed: " + response.statusCode() + " " + response.body());
+        }
+        return m.group(1);
+    }
+
+    // actuator 응답의 첫 measurement 값
+    private static double metric(HttpClient client, String baseUrl, String token, String name) throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name))
+                        .header("Authorization", "Bearer " + token)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher m = VALUE.matcher(response.body());
+        return m.find() ? Double.parseDouble(m.group(1)) : 0;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+}
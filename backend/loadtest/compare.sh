@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# 플랫폼 스레드 모드와 가상 스레드 모드(virtual 프로필) 의 처리량/메모리 비교
+# 같은 jar 를 두 번 띄워 각각 LoadTest 를 돌리고, 끝날 때 프로세스 RSS 도 출력합니다.
+# JDK 21, Oracle 접속 정보(apikeys.env), 로그인 가능한 테스트 계정이 필요합니다.
+#
+# 사용: LOAD_ID=tester LOAD_PASSWORD=secret ./loadtest/compare.sh [동시 사용자 수] [초]
+#       LOAD_PATH 로 대상 경로 변경 (기본: 한 달 식단 조회)
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${1:-400}
+DURATION=${2:-60}
+TARGET=${LOAD_PATH:-/api/diet/range?from=2024-01-01&to=2024-01-31}
+BASE_URL=http://localhost:3000
+: "${LOAD_ID:?LOAD_ID 가 필요합니다}"
+: "${LOAD_PASSWORD:?LOAD_PASSWORD 가 필요합니다}"
+
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v plain | head -1)
+mkdir -p build/loadtest
+
+for mode in platform virtual; do
+    args=(
+        --rate-limit.enabled=false
+        --management.endpoints.web.exposure.include=health,metrics
+        --logging.level.org.springframework.web=warn
+        --logging.level.org.springframework.security=warn
+        --logging.level.org.hibernate.SQL=warn
+        --spring.jpa.properties.hibernate.show_sql=false
+    )
+    if [ "$mode" = virtual ]; then
+        args+=(--spring.profiles.active=virtual)
+    fi
+    java -Xms512m -Xmx512m -jar "$JAR" "${args[@]}" > "build/loadtest/$mode.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "$BASE_URL/api/ping" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "[$mode] 기동 실패, build/loadtest/$mode.log 확인"; exit 1; }
+        sleep 1
+    done
+
+    # 짧게 한 번 돌려 JIT/커넥션 풀 워밍업 후 본 측정
+    java loadtest/LoadTest.java "$mode-warmup" "$BASE_URL" "$LOAD_ID" "$LOAD_PASSWORD" "$CONCURRENCY" 10 "$TARGET" > /dev/null
+    java loadtest/LoadTest.java "$mode" "$BASE_URL" "$LOAD_ID" "$LOAD_PASSWORD" "$CONCURRENCY" "$DURATION" "$TARGET"
+    echo "[$mode] RSS=$(( $(ps -o rss= -p "$pid") / 1024 )) MB"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+done
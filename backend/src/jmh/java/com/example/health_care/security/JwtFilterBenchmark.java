@@ -0,0 +1,158 @@
+package com.example.health_care.security;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import com.example.health_care.repository.BlacklistedTokenRepository;
+import com.example.health_care.repository.CustomersRepository;
+import com.example.health_care.service.TokenBlacklistService;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 인증된 요청 1건이 JWT 필터에서 쓰는 비용 (./gradlew jmh)
+ * 토큰 추출 → 검증 → 블랙리스트 → principal 생성 → SecurityContext 설정까지, DB 는 즉시 응답하는 stub
+ * - legacy: 예전 필터 경로 (토큰 문자열 블랙리스트 조회, 호출마다 키/파서 생성 후 두 번 파싱, 사용자 조회)
+ * - databaseMode: principal-mode=database (한 번 파싱, 사용자 조회로 principal)
+ * - claimsUncached: principal-mode=claims, 검증 캐시 없음
+ * - claimsCached: principal-mode=claims, 검증 캐시 적중 (기본 설정)
+ * stub 은 DB 왕복 시간이 0 이므로 실제 차이는 사용자 조회/블랙리스트 조회가 없어지는 만큼 더 큼
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET_KEY = "756be4cf9581add13ddb3ab3e2f1e75f27a0661af1c1225a89ef9a1d44d3f03b";
+    private static final String USERNAME = "bench@example.com";
+
+    private HttpServletRequest request;
+    private final HttpServletResponse response = stub(HttpServletResponse.class, null);
+    private final FilterChain chain = (req, res) -> { };
+
+    private BlacklistedTokenRepository blacklistRepository;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationFilter databaseMode;
+    private JwtAuthenticationFilter claimsUncached;
+    private JwtAuthenticationFilter claimsCached;
+
+    @Setup
+    public void setUp() {
+        CustomerPrincipal principal = new CustomerPrincipal(USERNAME, "x",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), 1L, 0);
+        userDetailsService = username -> principal;
+        CustomersRepository customersRepository = stub(CustomersRepository.class, 0);
+        blacklistRepository = stub(BlacklistedTokenRepository.class, null);
+
+        TokenBlacklistService blacklist = new TokenBlacklistService(blacklistRepository, null, null,
+                new SimpleMeterRegistry(), 10000, 60, 1000, 100, 10);
+        blacklist.load(); // 메모리 + Bloom filter 조회로 전환
+        AuthUserCache authUserCache = new AuthUserCache(customersRepository, 30, 10000);
+
+        JwtTokenProvider uncached = new JwtTokenProvider(null, 0, 15);
+        JwtTokenProvider cached = new JwtTokenProvider(null, 1000, 15);
+        databaseMode = new JwtAuthenticationFilter(uncached, userDetailsService, blacklist, authUserCache, "database");
+        claimsUncached = new JwtAuthenticationFilter(uncached, userDetailsService, blacklist, authUserCache, "claims");
+        claimsCached = new JwtAuthenticationFilter(cached, userDetailsService, blacklist, authUserCache, "claims");
+
+        String token = cached.createAccessToken(USERNAME, 1L, 0, List.of("ROLE_USER"));
+        request = stub(HttpServletRequest.class, "Bearer " + token);
+    }
+
+    @Benchmark
+    public Authentication legacy() throws Exception {
+        SecurityContextHolder.clearContext();
+        String jwt = request.getHeader("Authorization").substring(7);
+        if (!blacklistRepository.existsByToken(jwt)) {
+            SecretKey validateKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+            Jwts.parser().verifyWith(validateKey).build().parseSignedClaims(jwt);
+            SecretKey usernameKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+            String username = Jwts.parser().verifyWith(usernameKey).build().parseSignedClaims(jwt).getPayload()
+                    .getSubject();
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        chain.doFilter(request, response);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication databaseMode() throws Exception {
+        return run(databaseMode);
+    }
+
+    @Benchmark
+    public Authentication claimsUncached() throws Exception {
+        return run(claimsUncached);
+    }
+
+    @Benchmark
+    public Authentication claimsCached() throws Exception {
+        return run(claimsCached);
+    }
+
+    private Authentication run(JwtAuthenticationFilter filter) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // 인터페이스 stub: Authorization 헤더/원격 주소만 응답, 조회 메소드는 빈 결과 (Optional 이면 value)
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Object value) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getHeader":
+                    return "Authorization".equals(args[0]) ? value : null;
+                case "getRemoteAddr":
+                    return "127.0.0.1";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                default:
+                    break;
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == Optional.class) {
+                return Optional.ofNullable(value);
+            }
+            if (List.class.isAssignableFrom(returnType)) {
+                return List.of();
+            }
+            return null;
+        });
+    }
+}
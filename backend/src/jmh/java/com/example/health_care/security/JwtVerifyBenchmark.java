@@ -0,0 +1,62 @@
+package com.example.health_care.security;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * JWT 필터가 요청마다 하는 토큰 검증 비용 비교 (./gradlew jmh)
+ * - legacy: 예전 필터 경로 (validateToken + getUsernameFromToken, 호출마다 키/파서 생성 후 두 번 파싱)
+ * - verifyUncached: 미리 만든 키/파서로 한 번 파싱 (캐시 미스)
+ * - verifyCached: 검증된 토큰 캐시 적중
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET_KEY = "756be4cf9581add13ddb3ab3e2f1e75f27a0661af1c1225a89ef9a1d44d3f03b";
+
+    private JwtTokenProvider uncached;
+    private JwtTokenProvider cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtTokenProvider(null, 0, 15);
+        cached = new JwtTokenProvider(null, 1000, 15);
+        token = cached.createToken(new UsernamePasswordAuthenticationToken(
+                User.withUsername("bench@example.com").password("x").roles("USER").build(), null));
+    }
+
+    @Benchmark
+    public String legacy() {
+        SecretKey validateKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        Jwts.parser().verifyWith(validateKey).build().parseSignedClaims(token);
+        SecretKey usernameKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return Jwts.parser().verifyWith(usernameKey).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String verifyUncached() {
+        return uncached.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return cached.verify(token).getSubject();
+    }
+}
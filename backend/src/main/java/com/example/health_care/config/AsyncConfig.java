@@ -0,0 +1,84 @@
+package com.example.health_care.config;
+
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// 요청 스레드와 분리해서 실행할 비동기 작업용 스레드 풀 설정
+@Configuration
+public class AsyncConfig {
+
+    private static final int GEMINI_STREAM_MAX_THREADS = 16;
+    private static final int GEMINI_STREAM_QUEUE_CAPACITY = 100;
+
+    // Gemini SSE 스트리밍 전용 (요청 스레드는 SseEmitter 반환 후 바로 풀로 돌아감)
+    // 가상 스레드 모드에서는 작업마다 가상 스레드, 플랫폼 풀과 같은 한도 적용
+    // (동시 실행 GEMINI_STREAM_MAX_THREADS, 대기 GEMINI_STREAM_QUEUE_CAPACITY, 넘치면 TaskRejectedException)
+    @Bean(name = "geminiStreamExecutor")
+    public TaskExecutor geminiStreamExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("gemini-stream-");
+            executor.setVirtualThreads(true);
+            return bounded(executor, GEMINI_STREAM_MAX_THREADS, GEMINI_STREAM_QUEUE_CAPACITY);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(GEMINI_STREAM_MAX_THREADS);
+        executor.setQueueCapacity(GEMINI_STREAM_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("gemini-stream-");
+        return executor;
+    }
+
+    // 비밀번호 해시(BCrypt) 전용: 로그인 폭주 시에도 CPU 를 pool-size 코어까지만 쓰고 나머지 API 는 계속 처리
+    // 대기열이 차면 바로 거절 (TaskRejectedException → 503)
+    // CPU 작업이라 가상 스레드 모드에서도 고정 크기 플랫폼 스레드 풀 유지
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${security.password.pool-size:0}") int poolSize,
+            @Value("${security.password.queue-capacity:50}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+
+    // 작업마다 스레드를 만드는 실행기에 풀과 같은 한도를 씌움
+    // 받아 둔 작업이 maxRunning + queueCapacity 개면 바로 거절, 실행은 maxRunning 개까지 (나머지는 가상 스레드에서 대기)
+    private static TaskExecutor bounded(TaskExecutor executor, int maxRunning, int queueCapacity) {
+        Semaphore accepted = new Semaphore(maxRunning + queueCapacity);
+        Semaphore running = new Semaphore(maxRunning);
+        return task -> {
+            if (!accepted.tryAcquire()) {
+                throw new TaskRejectedException("Executor is saturated: " + maxRunning + " running, "
+                        + queueCapacity + " waiting");
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        running.acquireUninterruptibly();
+                        try {
+                            task.run();
+                        } finally {
+                            running.release();
+                        }
+                    } finally {
+                        accepted.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                accepted.release();
+                throw e;
+            }
+        };
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.health_care.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +15,19 @@ public class GeminiClient {
     private String key;
     private String baseUrl;
 
+    // 키 풀 (여러 개의 API 키를 번갈아 사용, 비어 있으면 key 하나만 사용)
+    private List<String> keys = new ArrayList<>();
+
+    // 키 1개당 분당 허용 요청 수 / 토큰 수 (무료 등급 기준)
+    private int requestsPerMinute = 15;
+    private long tokensPerMinute = 1_000_000L;
+
+    // 429 응답을 받은 키를 쉬게 하는 시간(초), Retry-After 헤더가 있으면 그 값을 우선 사용
+    private long quarantineSeconds = 60;
+
+    // 배치 분석 시 generateContent 1회에 담을 최대 이미지 수
+    private int batchSize = 4;
+
     public String getKey() {
         return key;
     }
@@ -27,11 +44,63 @@ public class GeminiClient {
         this.baseUrl = baseUrl;
     }
 
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<String> keys) {
+        this.keys = keys;
+    }
+
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    public void setRequestsPerMinute(int requestsPerMinute) {
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    public long getTokensPerMinute() {
+        return tokensPerMinute;
+    }
+
+    public void setTokensPerMinute(long tokensPerMinute) {
+        this.tokensPerMinute = tokensPerMinute;
+    }
+
+    public long getQuarantineSeconds() {
+        return quarantineSeconds;
+    }
+
+    public void setQuarantineSeconds(long quarantineSeconds) {
+        this.quarantineSeconds = quarantineSeconds;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    // key + keys 를 합쳐 중복/빈 값을 제거한 실제 사용 키 목록
+    public List<String> resolveKeys() {
+        LinkedHashSet<String> all = new LinkedHashSet<>();
+        if (keys != null) {
+            keys.stream().filter(k -> k != null && !k.isBlank()).map(String::trim).forEach(all::add);
+        }
+        if (key != null && !key.isBlank()) {
+            all.add(key.trim());
+        }
+        return new ArrayList<>(all);
+    }
+
     @Override
     public String toString() {
         return "GeminiConfig{" +
-                "key='" + key + '\'' +
+                "keys=" + resolveKeys().size() +
                 ", baseUrl='" + baseUrl + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.example.health_care.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// 엔드포인트 그룹별 요청 제한 설정 (rate-limit.groups.<그룹명>.*)
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // 프록시 뒤에서 실행할 때만 true (X-Forwarded-For 첫 번째 IP 사용)
+    private boolean trustForwardedFor = false;
+
+    // 이 시간 동안 요청이 없던 버킷은 메모리에서 제거
+    private long idleEvictSeconds = 600;
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Group {
+        // Ant 스타일 경로 패턴 (예: /api/gemini/**)
+        private List<String> patterns = new ArrayList<>();
+        // 버킷 최대 크기 (순간 허용량)
+        private int capacity = 10;
+        // 분당 충전되는 토큰 수 (지속 허용량)
+        private int refillPerMinute = 10;
+    }
+}
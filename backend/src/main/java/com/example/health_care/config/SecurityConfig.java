@@ -1,19 +1,25 @@
 package com.example.health_care.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.example.health_care.security.BoundedPasswordEncoder;
+import com.example.health_care.security.JwtAuthenticationEntryPoint;
 import com.example.health_care.security.JwtAuthenticationFilter;
+import com.example.health_care.security.RateLimitFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
@@ -41,18 +47,24 @@ public class SecurityConfig {
 
         @Bean
         public SecurityFilterChain securityFilterChain(HttpSecurity http,
-                        JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+                        JwtAuthenticationFilter jwtAuthenticationFilter,
+                        JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
+                        RateLimitFilter rateLimitFilter) throws Exception {
                 http
                                 // corsConfig 빈에서 가져온 설정을 직접 사용
                                 .cors(cors -> cors.configurationSource(corsConfig.corsConfigurationSource()))
                                 .csrf(csrf -> csrf.disable())
                                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                                // 인증 결과(사용자 ID)를 키로 쓰기 위해 JWT 필터 다음에 요청 제한
+                                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
                                 .authorizeHttpRequests(auth -> auth
                                                 .requestMatchers(SWAGGER_WHITELIST).permitAll()
                                                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                                                 .requestMatchers(PUBLIC_WHITELIST).permitAll()
-                                                .requestMatchers(HttpMethod.GET, "/ranking").permitAll()
+                                                .requestMatchers(HttpMethod.GET, "/ranking", "/ranking/top",
+                                                                "/ranking/window")
+                                                .permitAll()
                                                 .requestMatchers(HttpMethod.POST, "/api/auth/login", "/api/auth/signup")
                                                 .permitAll()
                                                 .requestMatchers("/api/auth/logout", "/body", "/api/profile")
@@ -60,6 +72,9 @@ public class SecurityConfig {
                                                 .requestMatchers("/api/food/public/**").permitAll()
                                                 .requestMatchers("/api/youtube/**").permitAll()
                                                 .anyRequest().authenticated())
+                                // 토큰 없음/만료는 401 + JSON 오류 본문 (클라이언트가 refresh 토큰으로 재발급 후 재시도)
+                                .exceptionHandling(e -> e
+                                                .authenticationEntryPoint(jwtAuthenticationEntryPoint))
                                 // 폼/베이직 로그인 비활성
                                 .httpBasic(b -> b.disable())
                                 .formLogin(f -> f.disable());
@@ -67,9 +82,14 @@ public class SecurityConfig {
                 return http.build();
         }
 
+        // BCrypt 는 전용 풀에서 실행 (로그인/가입/복구 답변 폭주가 다른 API 를 막지 않도록)
         @Bean
-        public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+        public PasswordEncoder passwordEncoder(
+                        @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor,
+                        MeterRegistry meterRegistry,
+                        @Value("${security.password.bcrypt-strength:10}") int strength,
+                        @Value("${security.password.wait-timeout-ms:5000}") long waitTimeoutMillis) {
+                return new BoundedPasswordEncoder(strength, passwordHashExecutor, waitTimeoutMillis, meterRegistry);
         }
 
         @Bean
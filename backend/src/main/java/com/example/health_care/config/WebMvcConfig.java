@@ -0,0 +1,24 @@
+package com.example.health_care.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.health_care.security.CurrentCustomerArgumentResolver;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final CurrentCustomerArgumentResolver currentCustomerArgumentResolver;
+
+    // @CurrentCustomer Long customerIdx
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentCustomerArgumentResolver);
+    }
+}
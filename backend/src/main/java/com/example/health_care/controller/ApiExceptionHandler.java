@@ -0,0 +1,26 @@
+package com.example.health_care.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.health_care.security.PasswordHashingBusyException;
+
+// 여러 컨트롤러에 공통인 예외 → 응답 매핑
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // 비밀번호 해시 풀 포화 (로그인/회원가입/비밀번호 변경·복구): 빠르게 거절하고 재시도 유도
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, String>> passwordHashingBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(
+                        "error", "busy",
+                        "message", e.getMessage()));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.health_care.controller;
 
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map; // >>> [ADDED] 401 응답 JSON 생성을 위해
 
 import org.springframework.http.HttpHeaders;
@@ -21,13 +22,17 @@ import org.springframework.util.StringUtils;
 import com.example.health_care.dto.LoginRequest;
 import com.example.health_care.dto.LoginResponse;
 import com.example.health_care.dto.LogoutResponse;
+import com.example.health_care.dto.RefreshTokenRequest;
 import com.example.health_care.dto.SignupRequest;
 import com.example.health_care.dto.SignupResponse;
 import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.security.CustomerPrincipal;
 import com.example.health_care.security.JwtTokenProvider;
 import com.example.health_care.service.CustomersService;
+import com.example.health_care.service.RefreshTokenService;
 import com.example.health_care.service.TokenBlacklistService;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import jakarta.servlet.http.HttpServletRequest;
@@ -45,6 +50,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final TokenBlacklistService tokenBlacklistService;
+    private final RefreshTokenService refreshTokenService;
 
     @PostMapping("/signup")
     public ResponseEntity<SignupResponse> signup(@Valid @RequestBody SignupRequest request) {
@@ -69,16 +75,19 @@ public class AuthController {
                             request.getId(),
                             request.getPassword()));
 
-            // JWT 토큰 생성
+            // JWT 토큰 생성 (짧은 access 토큰 + 회전하는 refresh 토큰)
             String token = jwtTokenProvider.createToken(authentication);
 
             // 사용자 정보 조회 -> Principal만 가져오기
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            String refreshToken = userDetails instanceof CustomerPrincipal cp ? refreshTokenService.issue(cp) : null;
 
             LoginResponse response = LoginResponse.builder()
                     .token(token)
                     .tokenType("Bearer")
                     .id(userDetails.getUsername())
+                    .expiresIn(jwtTokenProvider.getAccessTokenSeconds())
+                    .refreshToken(refreshToken)
                     .build();
 
             return ResponseEntity.ok(response);
@@ -94,11 +103,45 @@ public class AuthController {
         }
     }
 
+    // access 토큰 재발급: refresh 토큰 1건 조회 후 회전 (이전 refresh 토큰은 더 이상 못 씀)
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            RefreshTokenService.Rotated rotated = refreshTokenService.rotate(request.getRefreshToken());
+            String token = jwtTokenProvider.createAccessToken(rotated.loginId(), rotated.customerIdx(),
+                    rotated.tokenVersion(), List.of("ROLE_USER"));
+
+            return ResponseEntity.ok(LoginResponse.builder()
+                    .token(token)
+                    .tokenType("Bearer")
+                    .id(rotated.loginId())
+                    .expiresIn(jwtTokenProvider.getAccessTokenSeconds())
+                    .refreshToken(rotated.refreshToken())
+                    .build());
+
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(401).body(
+                Map.of(
+                    "error", "invalid_refresh_token",
+                    "message", e.getMessage()
+                )
+            );
+        }
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<LogoutResponse> logout(
             @Parameter(in = ParameterIn.HEADER, name = HttpHeaders.AUTHORIZATION, description = "Bearer <JWT>", required = false) @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
             @AuthenticationPrincipal UserDetails user,
+            @RequestBody(required = false) RefreshTokenRequest body,
             HttpServletRequest request) {
+        // refresh 토큰 family 폐기 (access 토큰은 곧 만료되므로 이것만으로도 재발급이 막힘)
+        boolean refreshRevoked = false;
+        if (body != null && StringUtils.hasText(body.getRefreshToken())) {
+            refreshTokenService.revokeFamily(body.getRefreshToken());
+            refreshRevoked = true;
+        }
+
         // 전역 Authorize가 안 붙거나 프록시에서 빠질 수 있어 추가 확인
         if (!StringUtils.hasText(authorization)) {
             authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
@@ -113,22 +156,34 @@ public class AuthController {
         }
 
         if (!StringUtils.hasText(token)) {
+            if (refreshRevoked) {
+                return ResponseEntity.ok(LogoutResponse.builder().message("Logged out").build());
+            }
             return ResponseEntity.badRequest()
                     .body(LogoutResponse.builder()
                             .message("Missing Authorization header (expected: Bearer <token>)")
                             .build());
         }
 
-        // 토큰에서 사용자/만료시각 추출 (메서드명은 현재 구현과 동일 사용)
-        String userId = (user != null) ? user.getUsername() : jwtTokenProvider.getUsernameFromToken(token);
-        LocalDateTime exp = jwtTokenProvider.getExpiry(token);
+        // 토큰을 한 번만 검증해서 사용자/만료시각 추출
+        Claims claims = jwtTokenProvider.verify(token);
+        if (claims == null) {
+            if (refreshRevoked) {
+                return ResponseEntity.ok(LogoutResponse.builder().message("Logged out").build());
+            }
+            return ResponseEntity.badRequest()
+                    .body(LogoutResponse.builder().message("Invalid token").build());
+        }
+        String userId = (user != null) ? user.getUsername() : claims.getSubject();
+        LocalDateTime exp = jwtTokenProvider.getExpiry(claims);
 
         if (!StringUtils.hasText(userId) || exp == null) {
             return ResponseEntity.badRequest()
                     .body(LogoutResponse.builder().message("Invalid token").build());
         }
 
-        tokenBlacklistService.blacklist(token, userId, exp, "USER_LOGOUT");
+        tokenBlacklistService.blacklist(token, jwtTokenProvider.getRevocationKey(token, claims), userId, exp,
+                "USER_LOGOUT");
         return ResponseEntity.ok(LogoutResponse.builder().message("Logged out").build());
     }
 }
@@ -3,13 +3,23 @@ package com.example.health_care.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.health_care.dto.DietBatchRequest;
+import com.example.health_care.dto.DietBatchResponse;
+import com.example.health_care.dto.DietDayResponse;
+import com.example.health_care.dto.DietRecordResponse;
 import com.example.health_care.dto.DietRequest;
-import com.example.health_care.entity.RecordEntity;
+import com.example.health_care.dto.NutritionRollupResponse;
+import com.example.health_care.security.CurrentCustomer;
 import com.example.health_care.service.DietService;
 
+import java.util.List;
+
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -26,14 +36,11 @@ public class DietController {
 
     // 식단 저장
     @PostMapping("/save")
-    public ResponseEntity<String> saveDietRecord(Authentication authentication, @RequestBody DietRequest request) {
+    public ResponseEntity<String> saveDietRecord(@CurrentCustomer Long customerIdx, @RequestBody DietRequest request) {
 
         try {
-            // 인증된 사용자 ID 추출
-            String customerId = authentication.getName();
-
-            // 서비스 호출
-            dietService.saveDietRecord(customerId, request);
+            // 서비스 호출 (고객 idx 는 토큰에서)
+            dietService.saveDietRecord(customerIdx, request);
 
             // 성공 응답 (200 OK)
             return ResponseEntity.ok("식단 기록이 저장되었습니다.");
@@ -44,15 +51,38 @@ public class DietController {
         }
     }
 
+    // 식단 일괄 저장 (오프라인 중 쌓인 기록을 한 번에, 항목별 idempotencyKey 로 중복 방지)
+    @PostMapping("/batch")
+    public ResponseEntity<DietBatchResponse> saveDietBatch(@CurrentCustomer Long customerIdx,
+            @Valid @RequestBody DietBatchRequest request) {
+
+        // 한 트랜잭션에서 처리하므로 항목 수 상한을 넘으면 바로 거절 (클라이언트는 MAX_ENTRIES 씩 나눠 전송)
+        if (request.getEntries() == null || request.getEntries().isEmpty()
+                || request.getEntries().size() > DietBatchRequest.MAX_ENTRIES) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        try {
+            return ResponseEntity.ok(dietService.saveDietBatch(customerIdx, request));
+
+        } catch (DuplicateKeyException e) {
+            // 같은 키가 동시에 다른 요청으로 적용됨 → 전체 롤백, 재전송하면 해당 항목은 duplicate 로 처리됨
+            log.warn("식단 일괄 저장 키 충돌: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+        } catch (Exception e) {
+            log.error("식단 일괄 저장 중 오류 발생", e);
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     // 식단 조회
     @GetMapping("/get")
-    public ResponseEntity<RecordEntity> getDietRecord(Authentication authentication,
+    public ResponseEntity<DietRecordResponse> getDietRecord(Authentication authentication,
             @RequestParam("date") String date) {
 
         try {
             String customerId = authentication.getName();
 
-            RecordEntity record = dietService.getDietRecord(customerId, date);
+            DietRecordResponse record = dietService.getDietRecord(customerId, date);
 
             return ResponseEntity.ok(record);
             
@@ -62,4 +92,35 @@ public class DietController {
         }
     }
 
+    // 기간 식단 조회 (달력/주간 화면에서 하루씩 여러 번 호출하지 않도록)
+    // GET /api/diet/range?from=2024-01-01&to=2024-01-31
+    @GetMapping("/range")
+    public ResponseEntity<List<DietDayResponse>> getDietRange(@CurrentCustomer Long customerIdx,
+            @RequestParam("from") String from, @RequestParam("to") String to) {
+
+        try {
+            return ResponseEntity.ok(dietService.getDietRange(customerIdx, from, to));
+
+        } catch (Exception e) {
+            log.error("기간 식단 조회 중 오류 발생", e);
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // 일/주/월 영양 집계 조회 (차트용)
+    // GET /api/diet/rollup?period=week&from=2024-01-01&to=2024-03-31
+    @GetMapping("/rollup")
+    public ResponseEntity<List<NutritionRollupResponse>> getRollups(@CurrentCustomer Long customerIdx,
+            @RequestParam("period") String period, @RequestParam("from") String from,
+            @RequestParam("to") String to) {
+
+        try {
+            return ResponseEntity.ok(dietService.getRollups(customerIdx, period, from, to));
+
+        } catch (Exception e) {
+            log.error("영양 집계 조회 중 오류 발생", e);
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
 }
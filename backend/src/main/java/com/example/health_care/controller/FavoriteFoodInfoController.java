@@ -3,7 +3,6 @@ package com.example.health_care.controller;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.health_care.dto.FavoriteFoodInfoRequest;
 import com.example.health_care.dto.FavoriteFoodInfoResponse;
+import com.example.health_care.security.CurrentCustomer;
 import com.example.health_care.service.FavoriteFoodInfoService;
 
 import jakarta.validation.Valid;
@@ -30,10 +30,9 @@ public class FavoriteFoodInfoController {
 
     // 즐겨찾기 목록 조회
     @GetMapping
-    public ResponseEntity<List<FavoriteFoodInfoResponse>> getFavorites(Authentication authentication) {
+    public ResponseEntity<List<FavoriteFoodInfoResponse>> getFavorites(@CurrentCustomer Long customerIdx) {
         try {
-            String customerId = authentication.getName();
-            List<FavoriteFoodInfoResponse> favorites = favoriteFoodInfoService.getFavorites(customerId);
+            List<FavoriteFoodInfoResponse> favorites = favoriteFoodInfoService.getFavorites(customerIdx);
             return ResponseEntity.ok(favorites);
         } catch (Exception e) {
             log.error("즐겨찾기 목록 조회 중 오류 발생", e);
@@ -45,10 +44,9 @@ public class FavoriteFoodInfoController {
     @PostMapping
     public ResponseEntity<String> addFavorite(
             @Valid @RequestBody FavoriteFoodInfoRequest request,
-            Authentication authentication) {
+            @CurrentCustomer Long customerIdx) {
         try {
-            String customerId = authentication.getName();
-            favoriteFoodInfoService.addFavorite(customerId, request);
+            favoriteFoodInfoService.addFavorite(customerIdx, request);
             return ResponseEntity.ok("즐겨찾기 추가 완료");
         } catch (IllegalArgumentException e) {
             log.warn("즐겨찾기 추가 실패: {}", e.getMessage());
@@ -63,10 +61,9 @@ public class FavoriteFoodInfoController {
     @DeleteMapping("/{idx}")
     public ResponseEntity<String> removeFavorite(
             @PathVariable("idx") Long idx,
-            Authentication authentication) {
+            @CurrentCustomer Long customerIdx) {
         try {
-            String customerId = authentication.getName();
-            favoriteFoodInfoService.removeFavorite(customerId, idx);
+            favoriteFoodInfoService.removeFavorite(customerIdx, idx);
             return ResponseEntity.ok("즐겨찾기 삭제 완료");
         } catch (IllegalArgumentException e) {
             log.warn("즐겨찾기 삭제 실패: {}", e.getMessage());
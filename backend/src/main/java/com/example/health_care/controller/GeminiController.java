@@ -1,84 +1,347 @@
 package com.example.health_care.controller;
 
+import com.example.health_care.dto.GeminiBatchRequest;
 import com.example.health_care.dto.GeminiRequest;
 import com.example.health_care.entity.GeminiPrompts;
 import com.example.health_care.service.GeminiService; // ✅ 수정: GeminiService 임포트
+import com.example.health_care.service.GeminiBatchService;
+import com.example.health_care.service.GeminiResultCache;
+import com.example.health_care.service.GeminiStreamParser;
+import com.example.health_care.service.GeminiUsageService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/gemini")
 public class GeminiController {
 
+    // 스트리밍 시 먼저 내려보낼 부분 필드 (완성되는 순서대로 전송)
+    private static final Set<String> STREAM_FIELDS = Set.of("dish", "context", "portion", "output.calories");
+    private static final long STREAM_TIMEOUT_MS = 60_000L;
+
     private final GeminiService geminiService; // ✅ 수정: GeminiService 주입
+    private final GeminiBatchService geminiBatchService;
+    private final GeminiUsageService geminiUsageService;
+    private final GeminiResultCache geminiResultCache;
+    private final TaskExecutor geminiStreamExecutor;
+    private final MeterRegistry meterRegistry;
     private final ObjectMapper mapper = new ObjectMapper();
 
     // ✅ 수정: GeminiClient 대신 GeminiService를 주입받음
-    public GeminiController(GeminiService geminiService) {
+    public GeminiController(GeminiService geminiService,
+            GeminiBatchService geminiBatchService,
+            GeminiUsageService geminiUsageService,
+            GeminiResultCache geminiResultCache,
+            @Qualifier("geminiStreamExecutor") TaskExecutor geminiStreamExecutor,
+            MeterRegistry meterRegistry) {
         this.geminiService = geminiService;
+        this.geminiBatchService = geminiBatchService;
+        this.geminiUsageService = geminiUsageService;
+        this.geminiResultCache = geminiResultCache;
+        this.geminiStreamExecutor = geminiStreamExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
-    private ResponseEntity<String> handleGeminiRequest(GeminiRequest request) {
+    private ResponseEntity<String> handleGeminiRequest(GeminiRequest request, String endpoint,
+            HttpServletRequest httpRequest) {
         try {
+            // 같은 사진은 캐시에서 바로 반환
+            String cacheKey = geminiResultCache.key(endpoint, request.getPrompt(), request.getImageData());
+            String cached = geminiResultCache.get(cacheKey);
+            if (cached != null) {
+                return ResponseEntity.ok(cached);
+            }
+
+            // 일일 토큰 한도 초과 시 Gemini 호출 대신 OCR 경로로 유도
+            String userKey = userKey(httpRequest);
+            if (geminiUsageService.isOverDailyLimit(userKey)) {
+                geminiUsageService.recordDegraded(endpoint, "ocr");
+                return ResponseEntity.ok(degradedResult().toString());
+            }
+
             // ✅ 수정: 서비스로 API 호출 로직 위임
-            String response = geminiService.callGeminiApi(request.getImageData(), request.getMimeType(), request.getPrompt());
+            String response = geminiService.callGeminiApi(request.getImageData(), request.getMimeType(), request.getPrompt(),
+                    new GeminiUsageService.Caller(endpoint, userKey));
 
             JsonNode root = mapper.readTree(response);
             String text = root.at("/candidates/0/content/parts/0/text").asText();
 
-            // JSON 문자열만 추출
-            if (text.startsWith("```json")) {
-                int startIndex = text.indexOf('{');
-                int endIndex = text.lastIndexOf('}');
-                if (startIndex != -1 && endIndex != -1) {
-                    text = text.substring(startIndex, endIndex + 1);
-                }
+            String result = toResultJson(text).toString();
+            geminiResultCache.put(cacheKey, result);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error processing Gemini response: " + e.getMessage());
+        }
+    }
+
+    // 모델이 생성한 텍스트에서 JSON만 꺼내 기본값을 채운 최종 결과로 변환
+    private ObjectNode toResultJson(String text) throws IOException {
+        // JSON 문자열만 추출
+        if (text.startsWith("```json")) {
+            int startIndex = text.indexOf('{');
+            int endIndex = text.lastIndexOf('}');
+            if (startIndex != -1 && endIndex != -1) {
+                text = text.substring(startIndex, endIndex + 1);
             }
+        }
 
-            JsonNode jsonResponse = mapper.readTree(text);
-            ObjectNode mutableJsonResponse = mapper.createObjectNode();
-            mutableJsonResponse.setAll((ObjectNode) jsonResponse);
+        JsonNode jsonResponse = mapper.readTree(text);
+        ObjectNode mutableJsonResponse = mapper.createObjectNode();
+        mutableJsonResponse.setAll((ObjectNode) jsonResponse);
 
-            // ✅ 핵심 수정: dish 필드가 없는 경우 기본값 설정
-            if (!mutableJsonResponse.has("dish")) {
-                mutableJsonResponse.put("dish", "알 수 없는 음식");
-            }
+        // ✅ 핵심 수정: dish 필드가 없는 경우 기본값 설정
+        if (!mutableJsonResponse.has("dish")) {
+            mutableJsonResponse.put("dish", "알 수 없는 음식");
+        }
+
+        // ✅ 수정: 반환 전에 calories가 없으면 0으로 설정
+        if (!mutableJsonResponse.has("calories")) {
+            mutableJsonResponse.put("calories", 0);
+        }
+        return mutableJsonResponse;
+    }
+
+    // 한도 초과 시 응답: calories 0 + degraded 표시 → 앱은 기기 OCR/직접 입력으로 전환
+    private ObjectNode degradedResult() {
+        ObjectNode result = mapper.createObjectNode();
+        result.put("dish", "알 수 없는 음식");
+        result.put("calories", 0);
+        result.putObject("output").put("calories", 0);
+        result.put("degraded", true);
+        result.put("fallback", "ocr");
+        return result;
+    }
+
+    // 사용량 집계 키: 로그인 사용자는 id, 비로그인은 IP
+    private String userKey(HttpServletRequest httpRequest) {
+        Principal principal = httpRequest.getUserPrincipal();
+        return principal != null ? principal.getName() : "ip:" + httpRequest.getRemoteAddr();
+    }
+
+    /*
+     * SSE 스트리밍 처리
+     * - event "field"  : { "field": "dish", "value": ... } 부분 필드가 완성될 때마다
+     * - event "result" : 일반 엔드포인트와 같은 최종 JSON
+     * - event "error"  : 오류 메시지
+     * 첫 필드까지 걸린 시간(gemini.stream.first_field)과 전체 시간(gemini.stream.total)을 따로 기록
+     * 타임아웃/클라이언트 연결 끊김/전송 오류 시 Gemini 스트림 읽기를 취소하고 emitter 를 닫음
+     * 스트리밍 풀이 가득 차면 503
+     */
+    private SseEmitter handleGeminiStream(GeminiRequest request, String endpoint, HttpServletRequest httpRequest) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        GeminiService.StreamHandle upstream = new GeminiService.StreamHandle();
+        emitter.onTimeout(() -> {
+            log.warn("[GEMINI:STREAM] {} 스트리밍 타임아웃 ({}ms), Gemini 스트림 취소", endpoint, STREAM_TIMEOUT_MS);
+            upstream.cancel();
+            emitter.complete();
+        });
+        emitter.onError(e -> upstream.cancel());
+        emitter.onCompletion(upstream::cancel);
 
-            // ✅ 수정: 반환 전에 calories가 없으면 0으로 설정
-            if (!mutableJsonResponse.has("calories")) {
-                mutableJsonResponse.put("calories", 0);
+        String userKey = userKey(httpRequest);
+        String cacheKey = geminiResultCache.key(endpoint, request.getPrompt(), request.getImageData());
+        try {
+            geminiStreamExecutor.execute(() -> streamToEmitter(request, endpoint, userKey, cacheKey, emitter, upstream));
+        } catch (TaskRejectedException e) {
+            log.warn("[GEMINI:STREAM] 스트리밍 풀 포화, {} 거절", endpoint);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "요청이 많아 잠시 후 다시 시도해 주세요.");
+        }
+        return emitter;
+    }
+
+    private void streamToEmitter(GeminiRequest request, String endpoint, String userKey, String cacheKey,
+            SseEmitter emitter, GeminiService.StreamHandle upstream) {
+        if (upstream.isCancelled()) {
+            return; // 대기 중에 연결이 끊기거나 타임아웃됨
+        }
+        String cached = geminiResultCache.get(cacheKey);
+        if (cached != null || geminiUsageService.isOverDailyLimit(userKey)) {
+            if (cached == null) {
+                geminiUsageService.recordDegraded(endpoint, "ocr");
             }
+            try {
+                send(emitter, "result", cached != null ? cached : degradedResult().toString());
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+            return;
+        }
+        long startNanos = System.nanoTime();
+        GeminiStreamParser parser = new GeminiStreamParser(STREAM_FIELDS);
+        boolean[] firstFieldSent = { false };
+        try {
+            String text = geminiService.streamGeminiApi(request.getImageData(), request.getMimeType(),
+                    request.getPrompt(), fragment -> {
+                        for (GeminiStreamParser.Field field : parser.feed(fragment)) {
+                            if (!firstFieldSent[0]) {
+                                firstFieldSent[0] = true;
+                                streamTimer("gemini.stream.first_field", endpoint)
+                                        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                            }
+                            ObjectNode data = mapper.createObjectNode();
+                            data.put("field", field.path());
+                            data.set("value", field.value());
+                            send(emitter, "field", data.toString());
+                        }
+                    }, new GeminiUsageService.Caller(endpoint, userKey), upstream);
 
-            return ResponseEntity.ok(mutableJsonResponse.toString());
+            String result = toResultJson(text).toString();
+            geminiResultCache.put(cacheKey, result);
+            send(emitter, "result", result);
+            streamTimer("gemini.stream.total", endpoint).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            emitter.complete();
         } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error processing Gemini response: " + e.getMessage());
+            if (upstream.isCancelled() || e instanceof CancellationException) {
+                // emitter 는 이미 닫힘 (타임아웃/연결 끊김)
+                log.debug("[GEMINI:STREAM] {} 스트리밍 취소: {}", endpoint, e.getMessage());
+                return;
+            }
+            log.error("[GEMINI:STREAM] {} 스트리밍 처리 실패", endpoint, e);
+            try {
+                send(emitter, "error", "Error processing Gemini response: " + e.getMessage());
+                emitter.complete();
+            } catch (Exception ignore) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, String data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
+    private Timer streamTimer(String name, String endpoint) {
+        return Timer.builder(name)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
     @PostMapping("/classify")
-    public ResponseEntity<String> classifyImage(@RequestBody GeminiRequest request) {
+    public ResponseEntity<String> classifyImage(@RequestBody GeminiRequest request, HttpServletRequest httpRequest) {
         request.setPrompt(GeminiPrompts.CLASSIFY_PROMPT);
-        return handleGeminiRequest(request);
+        return handleGeminiRequest(request, "classify", httpRequest);
     }
 
     @PostMapping("/packaged")
-    public ResponseEntity<String> analyzePackaged(@RequestBody GeminiRequest request) {
+    public ResponseEntity<String> analyzePackaged(@RequestBody GeminiRequest request, HttpServletRequest httpRequest) {
         request.setPrompt(GeminiPrompts.PACKAGED_PROMPT);
-        return handleGeminiRequest(request);
+        return handleGeminiRequest(request, "packaged", httpRequest);
     }
 
     @PostMapping("/prepared")
-    public ResponseEntity<String> analyzePrepared(@RequestBody GeminiRequest request) {
+    public ResponseEntity<String> analyzePrepared(@RequestBody GeminiRequest request, HttpServletRequest httpRequest) {
+        request.setPrompt(GeminiPrompts.PREPARED_PROMPT);
+        return handleGeminiRequest(request, "prepared", httpRequest);
+    }
+
+    // ===== SSE 스트리밍 버전 =====
+    @PostMapping(value = "/classify/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter classifyImageStream(@RequestBody GeminiRequest request, HttpServletRequest httpRequest) {
+        request.setPrompt(GeminiPrompts.CLASSIFY_PROMPT);
+        return handleGeminiStream(request, "classify", httpRequest);
+    }
+
+    @PostMapping(value = "/packaged/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyzePackagedStream(@RequestBody GeminiRequest request, HttpServletRequest httpRequest) {
+        request.setPrompt(GeminiPrompts.PACKAGED_PROMPT);
+        return handleGeminiStream(request, "packaged", httpRequest);
+    }
+
+    @PostMapping(value = "/prepared/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyzePreparedStream(@RequestBody GeminiRequest request, HttpServletRequest httpRequest) {
         request.setPrompt(GeminiPrompts.PREPARED_PROMPT);
-        return handleGeminiRequest(request);
+        return handleGeminiStream(request, "prepared", httpRequest);
+    }
+
+    // ===== 여러 장 일괄 분석 (하루치 식사 사진 업로드) =====
+    // 응답: { "results": [ { "index": 0, ...단일 분석 결과 }, { "index": 1, "error": "..." } ] }
+    @PostMapping("/batch")
+    public ResponseEntity<String> analyzeBatch(@Valid @RequestBody GeminiBatchRequest request,
+            HttpServletRequest httpRequest) {
+        if (request.getImages() == null || request.getImages().isEmpty()) {
+            return ResponseEntity.badRequest().body("images가 비어 있습니다.");
+        }
+        if (request.getImages().size() > GeminiBatchRequest.MAX_IMAGES) {
+            return ResponseEntity.badRequest()
+                    .body("images는 최대 " + GeminiBatchRequest.MAX_IMAGES + "장까지 보낼 수 있습니다.");
+        }
+        String prompt = "packaged".equalsIgnoreCase(request.getMode())
+                ? GeminiPrompts.PACKAGED_PROMPT
+                : GeminiPrompts.PREPARED_PROMPT;
+        String userKey = userKey(httpRequest);
+        if (geminiUsageService.isOverDailyLimit(userKey)) {
+            geminiUsageService.recordDegraded("batch", "ocr");
+            ArrayNode results = mapper.createArrayNode();
+            for (int i = 0; i < request.getImages().size(); i++) {
+                results.addObject().put("index", i).setAll(degradedResult());
+            }
+            ObjectNode body = mapper.createObjectNode();
+            body.set("results", results);
+            return ResponseEntity.ok(body.toString());
+        }
+        try {
+            List<String> texts = geminiBatchService.analyze(request.getImages(), prompt, userKey);
+
+            ArrayNode results = mapper.createArrayNode();
+            for (int i = 0; i < texts.size(); i++) {
+                ObjectNode item = results.addObject();
+                item.put("index", i);
+                if (texts.get(i) == null) {
+                    item.put("error", "분석에 실패했습니다.");
+                    continue;
+                }
+                try {
+                    item.setAll(toResultJson(texts.get(i)));
+                } catch (Exception e) {
+                    item.put("error", "분석 결과를 해석할 수 없습니다.");
+                }
+            }
+            ObjectNode body = mapper.createObjectNode();
+            body.set("results", results);
+            return ResponseEntity.ok(body.toString());
+        } catch (Exception e) {
+            log.error("[GEMINI:BATCH] 일괄 분석 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error processing Gemini response: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
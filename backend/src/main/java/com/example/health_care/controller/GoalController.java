@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.health_care.dto.CustomersProfileDTO;
 import com.example.health_care.dto.UpdateAccountRequest;
 import com.example.health_care.entity.BodyEntity;
+import com.example.health_care.security.CurrentCustomer;
 import com.example.health_care.service.CustomersService;
 
 import lombok.RequiredArgsConstructor;
@@ -56,9 +57,8 @@ public class GoalController {
 
     // 체중 히스토리 조회
     @GetMapping("/history")
-    public ResponseEntity<List<BodyEntity>> getBodyHistory(Authentication authentication) {
-        String customerId = authentication.getName();
-        List<BodyEntity> bodyHistory = customersService.getBodyHistory(customerId);
+    public ResponseEntity<List<BodyEntity>> getBodyHistory(@CurrentCustomer Long customerIdx) {
+        List<BodyEntity> bodyHistory = customersService.getBodyHistory(customerIdx);
         return ResponseEntity.ok(bodyHistory);
 
     }
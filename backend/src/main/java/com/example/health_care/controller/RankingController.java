@@ -1,24 +1,106 @@
 package com.example.health_care.controller;
 
-import com.example.health_care.dto.CustomersProfileDTO;
+import com.example.health_care.dto.LeaderboardAroundResponse;
+import com.example.health_care.dto.LeaderboardEntryDTO;
+import com.example.health_care.dto.RankingPageResponse;
+import com.example.health_care.dto.WindowLeaderboardResponse;
+import com.example.health_care.security.CurrentCustomer;
+import com.example.health_care.service.LeaderboardService;
 import com.example.health_care.service.RankingService;
+import com.example.health_care.service.WindowedLeaderboardService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import java.time.Duration;
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/ranking")
 @RequiredArgsConstructor
 public class RankingController {
 
     private final RankingService rankingService;
+    private final LeaderboardService leaderboardService;
+    private final WindowedLeaderboardService windowedLeaderboardService;
 
+    @Value("${ranking.cache-max-age-seconds:30}")
+    private long cacheMaxAgeSeconds;
+
+    // 랭킹 목록 (GET ranking?cursor=&size=50) : id 순 keyset 페이지, 응답의 next 를 다음 cursor 로 사용
+    // 스냅샷이 바뀌지 않았으면 If-None-Match 로 304
     @GetMapping
-    public ResponseEntity<List<CustomersProfileDTO>> getAllCustomersProfile() {
-        List<CustomersProfileDTO> customers = rankingService.getAllCustomersProfile();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<RankingPageResponse> getRankingPage(WebRequest webRequest,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "" + RankingService.DEFAULT_PAGE_SIZE) int size) {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds)).cachePublic();
+        try {
+            RankingService.Page page = rankingService.getPage(cursor, size);
+            if (webRequest.checkNotModified(page.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(page.etag()).cacheControl(cacheControl)
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(page.etag())
+                    .cacheControl(cacheControl)
+                    .body(page.body());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 리더보드 상위 n 명 (GET ranking/top?n=10)
+    @GetMapping("/top")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTop(@RequestParam(value = "n", defaultValue = "10") int n) {
+        return ResponseEntity.ok(leaderboardService.getTop(n));
+    }
+
+    // 내 순위 + 앞뒤 around 명 (GET ranking/me?around=5)
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardAroundResponse> getMyRank(@CurrentCustomer Long customerIdx,
+            @RequestParam(value = "around", defaultValue = "5") int around) {
+        try {
+            return ResponseEntity.ok(leaderboardService.getAround(customerIdx, around));
+        } catch (Exception e) {
+            log.error("내 순위 조회 중 오류 발생", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 기간 리더보드 상위 n 명 (GET ranking/window?period=week&scope=current&n=10)
+    // scope=previous 는 지난 기간 최종 순위 (보관된 결과)
+    @GetMapping("/window")
+    public ResponseEntity<WindowLeaderboardResponse> getWindowTop(
+            @RequestParam(value = "period", defaultValue = "week") String period,
+            @RequestParam(value = "scope", defaultValue = WindowedLeaderboardService.CURRENT) String scope,
+            @RequestParam(value = "n", defaultValue = "10") int n) {
+        try {
+            return ResponseEntity.ok(windowedLeaderboardService.getTop(period, scope, n));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 기간 리더보드 내 순위 (GET ranking/window/me?period=week&scope=current&around=5)
+    @GetMapping("/window/me")
+    public ResponseEntity<LeaderboardAroundResponse> getWindowMyRank(@CurrentCustomer Long customerIdx,
+            @RequestParam(value = "period", defaultValue = "week") String period,
+            @RequestParam(value = "scope", defaultValue = WindowedLeaderboardService.CURRENT) String scope,
+            @RequestParam(value = "around", defaultValue = "5") int around) {
+        try {
+            return ResponseEntity.ok(
+                    windowedLeaderboardService.getAround(customerIdx, period, scope, around));
+        } catch (Exception e) {
+            log.error("기간 리더보드 내 순위 조회 중 오류 발생", e);
+            return ResponseEntity.badRequest().build();
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,9 @@ package com.example.health_care.controller;
 
 import com.example.health_care.dto.RecoveryDTO.*;
 import com.example.health_care.entity.RecoveryQuestionCode;
+import com.example.health_care.security.CurrentCustomer;
 import com.example.health_care.service.RecoveryService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -37,9 +36,9 @@ public class RecoveryController {
 
     // >>> [ADDED] 보안질문 등록/수정(3개) - 로그인 필요
     @PutMapping("/profile/security-questions")
-    public ResponseEntity<?> setQuestions(@AuthenticationPrincipal UserDetails user,
+    public ResponseEntity<?> setQuestions(@CurrentCustomer Long customerIdx,
                                           @Valid @RequestBody SetSecurityQuestionsRequest req) {
-        service.setQuestions(user.getUsername(), req.getAnswers());
+        service.setQuestions(customerIdx, req.getAnswers());
         return ResponseEntity.noContent().build();
     }
 
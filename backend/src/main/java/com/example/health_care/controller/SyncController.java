@@ -0,0 +1,36 @@
+package com.example.health_care.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.health_care.dto.SyncResponse;
+import com.example.health_care.security.CurrentCustomer;
+import com.example.health_care.service.ChangeLogService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final ChangeLogService changeLogService;
+
+    // 델타 동기화 (GET api/sync?since=커서) : since 이후 식단/신체/목표/프로필/즐겨찾기 변경만 반환
+    @GetMapping
+    public ResponseEntity<SyncResponse> getChanges(@CurrentCustomer Long customerIdx,
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "limit", defaultValue = "200") int limit) {
+        try {
+            return ResponseEntity.ok(changeLogService.getChanges(customerIdx, since, limit));
+        } catch (Exception e) {
+            log.error("변경 내역 조회 중 오류 발생", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
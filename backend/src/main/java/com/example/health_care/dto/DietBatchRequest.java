@@ -0,0 +1,33 @@
+package com.example.health_care.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+// 오프라인 중 쌓인 식단 기록을 한 번에 올리는 요청 (순서대로 적용)
+// 항목별 검증은 서비스에서 하고 실패한 항목만 결과에 invalid 로 표시
+@Getter
+@Setter
+public class DietBatchRequest {
+
+    // 한 번에 올릴 수 있는 최대 항목 수 (Bean Validation 구현체가 없으므로 컨트롤러에서도 직접 확인)
+    public static final int MAX_ENTRIES = 200;
+
+    @NotEmpty
+    @Size(max = MAX_ENTRIES)
+    private List<Entry> entries;
+
+    @Getter
+    @Setter
+    public static class Entry {
+        private String idempotencyKey; // 클라이언트가 만든 고유 키 (재전송 시 중복 적용 방지)
+        private String date; // "2024-01-15"
+        private String type; // "morning", "lunch", "dinner"
+        private String food;
+        private Long calories;
+        private Long timestamp; // 식품 추가 시간 (선택사항)
+    }
+}
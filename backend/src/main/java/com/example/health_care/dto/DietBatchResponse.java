@@ -0,0 +1,35 @@
+package com.example.health_care.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 일괄 업로드 결과 (요청 항목 순서와 같음)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DietBatchResponse {
+
+    public static final String APPLIED = "applied";
+    public static final String DUPLICATE = "duplicate"; // 이미 적용된 키 → 건너뜀
+    public static final String INVALID = "invalid";
+
+    private int applied;
+    private int duplicates;
+    private int invalid;
+    private List<Result> results;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Result {
+        private int index;
+        private String idempotencyKey;
+        private String status;
+        private String message;
+    }
+}
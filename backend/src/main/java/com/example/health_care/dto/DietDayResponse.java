@@ -0,0 +1,23 @@
+package com.example.health_care.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 기간 식단 조회 응답의 하루치 (기록이 없는 날은 0 / 빈 목록)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DietDayResponse {
+    private String date; // "2024-01-15"
+    private Long caloriesM;
+    private Long caloriesL;
+    private Long caloriesD;
+    private Long totalCalories;
+    private Map<String, List<Map<String, Object>>> mealDetails; // {"morning": [...], "lunch": [...], "dinner": [...]}
+}
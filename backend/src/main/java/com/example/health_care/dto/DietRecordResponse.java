@@ -0,0 +1,24 @@
+package com.example.health_care.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 식단 조회 응답 (기존 RecordEntity 응답과 같은 필드 구성, 고객 정보는 제외)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DietRecordResponse {
+    private Long idx;
+    private LocalDate recordDate; // "2024-01-15"
+    private Long caloriesM;
+    private Long caloriesL;
+    private Long caloriesD;
+    private String mealDetails; // JSON: {"morning": [...], "lunch": [...], "dinner": [...]}
+    private Double targetWeight;
+    private Integer targetCalories;
+}
@@ -0,0 +1,18 @@
+package com.example.health_care.dto;
+
+import java.time.LocalDate;
+
+// 식단 조회용 프로젝션 (RECORD 컬럼 + 식사 항목 1건, 항목이 없으면 meal* 필드는 null)
+public record DietRecordRow(
+        Long recordIdx,
+        LocalDate recordDate,
+        Long caloriesM,
+        Long caloriesL,
+        Long caloriesD,
+        Double targetWeight,
+        Integer targetCalories,
+        String mealType,
+        String food,
+        Long calories,
+        Long eatenAt) {
+}
@@ -0,0 +1,34 @@
+package com.example.health_care.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+// 하루치 식사 사진을 한 번에 분석하는 요청
+@Getter
+@Setter
+public class GeminiBatchRequest {
+
+    // 요청 1건에 담을 수 있는 최대 사진 수 (Bean Validation 구현체가 없으므로 컨트롤러에서도 직접 확인)
+    public static final int MAX_IMAGES = 10;
+
+    // "prepared"(조리식품, 기본값) 또는 "packaged"(포장식품)
+    private String mode;
+
+    @Size(min = 1, max = MAX_IMAGES)
+    @Valid
+    private List<Image> images;
+
+    @Getter
+    @Setter
+    public static class Image {
+        @NotBlank
+        private String imageData;
+        @NotBlank
+        private String mimeType;
+    }
+}
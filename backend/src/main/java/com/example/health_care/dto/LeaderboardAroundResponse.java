@@ -0,0 +1,22 @@
+package com.example.health_care.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 내 순위 + 앞뒤 이웃 (neighbors 에 나도 포함, 순위순)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardAroundResponse {
+    private String scoreType; // progress, streak
+    private int total;
+    private LeaderboardEntryDTO me;
+    private List<LeaderboardEntryDTO> neighbors;
+}
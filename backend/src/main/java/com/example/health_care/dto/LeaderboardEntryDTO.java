@@ -0,0 +1,19 @@
+package com.example.health_care.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 리더보드 한 줄 (rank 는 1부터)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardEntryDTO {
+    private int rank;
+    private String id;
+    private double score;
+}
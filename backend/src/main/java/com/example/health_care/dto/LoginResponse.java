@@ -13,4 +13,6 @@ public class LoginResponse {
     private String token;
     private String tokenType;
     private String id;
+    private Long expiresIn; // access 토큰 유효 시간 (초)
+    private String refreshToken; // POST /api/auth/refresh 로 새 access 토큰 발급 (한 번 쓰면 교체됨)
 }
\ No newline at end of file
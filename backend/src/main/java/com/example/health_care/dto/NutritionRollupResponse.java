@@ -0,0 +1,24 @@
+package com.example.health_care.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 일/주/월 영양 집계 응답
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NutritionRollupResponse {
+    private String period; // "day", "week", "month"
+    private String periodStart; // "2024-01-15" (주: 월요일, 월: 1일)
+    private Long caloriesM;
+    private Long caloriesL;
+    private Long caloriesD;
+    private Long totalCalories;
+    private Long itemCount;
+    private Long dayCount;
+    private Long targetCalories; // 기록이 있는 날들의 목표 칼로리 합
+    private Long deviation; // totalCalories - targetCalories
+}
@@ -0,0 +1,22 @@
+package com.example.health_care.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 랭킹 목록 한 페이지 (id 순 keyset 페이지, next 가 null 이면 마지막 페이지)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingPageResponse {
+    private List<CustomersProfileDTO> content;
+    private String next; // 다음 페이지 요청의 cursor 값
+    private int size;
+    private int total;
+}
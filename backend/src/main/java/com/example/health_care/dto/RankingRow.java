@@ -0,0 +1,18 @@
+package com.example.health_care.dto;
+
+// 랭킹 조회용 네이티브 쿼리 프로젝션 (고객 + 최신 BODY 목표, BODY 가 없으면 target* 은 null)
+public interface RankingRow {
+    String getId();
+
+    Double getWeight();
+
+    Integer getAge();
+
+    String getGender();
+
+    Double getHeight();
+
+    Double getTargetWeight();
+
+    Integer getTargetCalories();
+}
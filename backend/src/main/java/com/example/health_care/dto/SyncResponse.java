@@ -0,0 +1,39 @@
+package com.example.health_care.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 델타 동기화 응답
+// reset=true 면 since 이후 로그가 이미 정리됐거나 커서가 없으므로 전체 재조회 후 cursor 부터 이어서 받음
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    private long cursor; // 다음 요청의 since 값
+    private boolean hasMore;
+    private boolean reset;
+    private List<Change> changes;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Change {
+        private long seq;
+        private String entity; // diet, body, goal, profile, favorite
+        private String op; // add, update, delete
+        private String key;
+        private JsonNode data;
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime at;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.health_care.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 기간 리더보드 (이번/지난 일·주·월)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WindowLeaderboardResponse {
+    private String period; // day, week, month
+    private String scope; // current, previous
+    private String periodStart; // "2024-01-15"
+    private String periodEnd; // 마지막 날 (포함)
+    private int total;
+    private List<LeaderboardEntryDTO> entries;
+}
@@ -23,6 +23,10 @@ public class BlacklistedTokenEntity {
     @Column(name = "token", length = 1024, nullable = false, unique = true)
     private String token;
 
+    // 폐기 키: 토큰의 jti (jti 없는 이전 토큰은 SHA-256(토큰) hex)
+    @Column(name = "jti", length = 64)
+    private String jti;
+
     @Column(name = "user_id", length = 100, nullable = false)
     private String userId;
 
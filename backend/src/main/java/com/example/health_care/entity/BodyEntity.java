@@ -1,7 +1,7 @@
 package com.example.health_care.entity;
 
 import lombok.*;
-import java.util.Date;
+import java.time.LocalDateTime;
 import jakarta.persistence.*;
 import com.example.health_care.entity.Gender;
 
@@ -11,7 +11,9 @@ import com.example.health_care.entity.Gender;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "body")
+@Table(name = "body", indexes = {
+        @Index(name = "idx_body_customer_date", columnList = "customer_id, record_date")
+})
 public class BodyEntity {
 
     @Id
@@ -47,5 +49,5 @@ public class BodyEntity {
     private Double inbody;
 
     @Column(name = "record_date", nullable = false)
-    private Date recordDate;
+    private LocalDateTime recordDate;
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.health_care.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 고객별 변경 로그 (GET /api/sync 델타 동기화용)
+ * seq 는 고객마다 1부터 증가하는 번호이며 클라이언트 커서로 사용됩니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "change_log", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_change_log_customer_seq", columnNames = { "customer_id", "seq" })
+}, indexes = {
+        @Index(name = "idx_change_log_created", columnList = "created_at")
+})
+public class ChangeLogEntity {
+
+    public static final String DIET = "diet";
+    public static final String BODY = "body";
+    public static final String GOAL = "goal";
+    public static final String PROFILE = "profile";
+    public static final String FAVORITE = "favorite";
+
+    public static final String OP_ADD = "add";
+    public static final String OP_UPDATE = "update";
+    public static final String OP_DELETE = "delete";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idx")
+    private Long idx;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+
+    @Column(name = "entity", length = 20, nullable = false)
+    private String entity;
+
+    @Column(name = "op", length = 10, nullable = false)
+    private String op;
+
+    // 대상 식별자 (식단은 날짜, 나머지는 행 idx)
+    @Column(name = "ref_key", length = 50)
+    private String refKey;
+
+    // 변경 내용 JSON (클라이언트가 그대로 로컬 사본에 반영)
+    @Column(name = "payload", length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -37,6 +37,10 @@ public class CustomersEntity {
 
     @Column(name = "height")
     private Double height;
+
+    // 비밀번호가 바뀌면 1 증가, JWT 의 ver 클레임과 다르면 그 토큰은 더 이상 인증되지 않음 (NULL 은 0 취급)
+    @Column(name = "token_version")
+    private Integer tokenVersion;
 }
 /*tlqkf */
 /*..? */
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.health_care.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 이미 적용한 식단 일괄 업로드 키 (고객별 idempotency key)
+ * 키는 SHA-256 앞 16바이트(hex 32자)로 줄여 저장하고, 보관 기간이 지나면 주기적으로 삭제합니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "diet_idempotency", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_diet_idem_customer_key", columnNames = { "customer_id", "key_hash" })
+}, indexes = {
+        @Index(name = "idx_diet_idem_created", columnList = "created_at")
+})
+public class DietIdempotencyEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idx")
+    private Long idx;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "key_hash", length = 32, nullable = false)
+    private String keyHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
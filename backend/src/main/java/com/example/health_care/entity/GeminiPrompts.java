@@ -54,4 +54,22 @@ public class GeminiPrompts {
               "output": { "portion_grams": 정수, "calories": 정수 }
             }
             """;
-}
\ No newline at end of file
+
+    // 여러 장을 한 번에 분석할 때 단일 프롬프트를 감싸는 다중 결과 스키마
+    public static String batchPrompt(String singlePrompt, int imageCount) {
+        return """
+                너는 음식 사진 %d장을 한 번에 분석한다. 각 사진 바로 앞에 "[image N]" 표시가 있다(N은 0부터 시작).
+                아래 "단일 사진 규칙"을 사진마다 따로 적용하고, 결과를 index 순서대로 아래 JSON으로만 응답한다.
+                {
+                  "results": [
+                    { "index": 0, ...단일 사진 출력 필드... },
+                    { "index": 1, ...단일 사진 출력 필드... }
+                  ]
+                }
+                분석할 수 없는 사진은 { "index": N, "error": "사유" } 로 표시한다.
+
+                ----- 단일 사진 규칙 -----
+                %s
+                """.formatted(imageCount, singlePrompt);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.health_care.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Gemini 토큰 사용량 (GeminiUsageService 가 주기적으로 모아서 INSERT 하는 증분 기록)
+ * 같은 (날짜, 사용자, 엔드포인트)에 여러 행이 쌓이므로 조회 시 SUM 으로 합산합니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "gemini_usage", indexes = {
+        @Index(name = "idx_gemini_usage_date_user", columnList = "usage_date, user_key")
+})
+public class GeminiUsageEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idx")
+    private Long idx;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    // 로그인 사용자는 이메일(id), 비로그인은 "ip:<주소>"
+    @Column(name = "user_key", length = 100, nullable = false)
+    private String userKey;
+
+    // classify / packaged / prepared / batch
+    @Column(name = "endpoint", length = 20, nullable = false)
+    private String endpoint;
+
+    @Column(name = "calls", nullable = false)
+    private Long calls;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private Long promptTokens;
+
+    @Column(name = "candidates_tokens", nullable = false)
+    private Long candidatesTokens;
+
+    @Column(name = "total_tokens", nullable = false)
+    private Long totalTokens;
+
+    @Column(name = "flushed_at", nullable = false)
+    private LocalDateTime flushedAt;
+}
@@ -1,6 +1,6 @@
 package com.example.health_care.entity;
 
-import java.util.Date;
+import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
@@ -24,7 +25,9 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "goal")
+@Table(name = "goal", indexes = {
+        @Index(name = "idx_goal_customer_date", columnList = "customer_id, record_date")
+})
 public class GoalEntity {
 
     @Id
@@ -45,5 +48,5 @@ public class GoalEntity {
 
  @Builder.Default
     @Column(name = "record_date", nullable = false)
-    private Date recordDate = new Date();
+    private LocalDateTime recordDate = LocalDateTime.now();
 }
@@ -0,0 +1,37 @@
+package com.example.health_care.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 여러 서버에서 같은 예약 작업이 겹쳐 돌지 않도록 하는 DB 잠금 (작업 이름당 1행)
+ * locked_until 이 지나면 다른 서버가 가져갈 수 있으므로 잡은 서버가 죽어도 잠금이 풀립니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_lock")
+public class JobLockEntity {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_by", length = 100, nullable = false)
+    private String lockedBy;
+}
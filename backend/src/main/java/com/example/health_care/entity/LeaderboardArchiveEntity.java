@@ -0,0 +1,62 @@
+package com.example.health_care.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 기간(일/주/월) 리더보드 최종 순위 보관
+ * 기간이 끝날 때 한 번 기록하며, 지난 기간 순위는 다시 계산하지 않고 이 테이블에서 읽습니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "leaderboard_archive", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lb_archive_period_customer",
+                columnNames = { "period_type", "period_start", "customer_id" })
+})
+public class LeaderboardArchiveEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idx")
+    private Long idx;
+
+    // D / W / M (NutritionRollupEntity 와 같은 값)
+    @Column(name = "period_type", length = 1, nullable = false)
+    private String periodType;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "rank_no", nullable = false)
+    private Integer rankNo;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    // 조회 시 customers 조인 없이 바로 응답하도록 로그인 ID 도 함께 보관
+    @Column(name = "login_id", length = 100, nullable = false)
+    private String loginId;
+
+    @Column(name = "score", nullable = false)
+    private Double score;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,56 @@
+package com.example.health_care.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 식사 항목 (기존 record.meal_details JSON 을 행 단위로 분리)
+ * 음식 추가는 이 테이블에 INSERT 한 번으로 끝나고, record 의 LOB 은 다시 쓰지 않습니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "meal_item", indexes = {
+        @Index(name = "idx_meal_item_record", columnList = "record_id, idx")
+})
+public class MealItemEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idx")
+    private Long idx;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "record_id", nullable = false)
+    private RecordEntity record;
+
+    // morning / lunch / dinner
+    @Column(name = "meal_type", length = 10, nullable = false)
+    private String mealType;
+
+    @Column(name = "food", length = 200)
+    private String food;
+
+    @Column(name = "calories")
+    private Long calories;
+
+    // 음식 추가 시각 (epoch millis, 기존 JSON 의 timestamp)
+    @Column(name = "eaten_at")
+    private Long eatenAt;
+}
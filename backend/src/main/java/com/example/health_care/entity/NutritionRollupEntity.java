@@ -0,0 +1,82 @@
+package com.example.health_care.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 사용자별 일/주(ISO)/월 영양 집계 (식단 저장 트랜잭션 안에서 증분 갱신)
+ * 차트/랭킹이 원본 RECORD·meal_item 을 다시 합산하지 않고 기간(버킷) 수만큼만 읽도록 합니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "nutrition_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_customer_period", columnNames = { "customer_id", "period_type", "period_start" })
+})
+public class NutritionRollupEntity {
+
+    // 집계 단위
+    public static final String DAY = "D";
+    public static final String WEEK = "W"; // ISO 주 (월요일 시작)
+    public static final String MONTH = "M";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idx")
+    private Long idx;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private CustomersEntity customer;
+
+    // D / W / M
+    @Column(name = "period_type", length = 1, nullable = false)
+    private String periodType;
+
+    // 일: 그날, 주: 그 주 월요일, 월: 1일
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "calories_m", nullable = false)
+    private Long caloriesM;
+
+    @Column(name = "calories_l", nullable = false)
+    private Long caloriesL;
+
+    @Column(name = "calories_d", nullable = false)
+    private Long caloriesD;
+
+    // 기록된 음식 개수
+    @Column(name = "item_count", nullable = false)
+    private Long itemCount;
+
+    // 기록이 있는 날 수
+    @Column(name = "day_count", nullable = false)
+    private Long dayCount;
+
+    // 기록이 있는 날들의 목표 칼로리 합 (편차 = 총 칼로리 - target_total)
+    @Column(name = "target_total", nullable = false)
+    private Long targetTotal;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -5,7 +5,7 @@ import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 @Getter
 @Setter
@@ -14,7 +14,10 @@ import java.util.Date;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "record")
+// 고객별 하루 1행 (동시 저장 시 같은 날짜 RECORD 가 중복 생성되지 않도록, (customer_id, record_date) 인덱스 겸용)
+@Table(name = "record", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_record_customer_date", columnNames = { "customer_id", "record_date" })
+})
 public class RecordEntity {
 
     @Id
@@ -28,7 +31,7 @@ public class RecordEntity {
 
     @CreatedDate
     @Column(name = "record_date", nullable = false, updatable = false)
-    private Date recordDate;
+    private LocalDate recordDate;
 
     @Column(name = "caloriesm")
     private Long caloriesM;
@@ -39,11 +42,8 @@ public class RecordEntity {
     @Column(name = "caloriesd")
     private Long caloriesD;
 
-    // 기존 아침,점심,저녁 데이터가 들어가는 필드
-    @Lob
-    @Column(name = "meal_details")
-    private String mealDetails;
-
+    // 아침,점심,저녁 상세 항목은 meal_item 테이블(MealItemEntity)에 저장
+    // (기존 meal_details CLOB 은 MealItemMigration 이 이전 후 비움)
 
     @Column(name = "target_weight")
     private Double targetWeight;
@@ -0,0 +1,32 @@
+package com.example.health_care.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 고객별 마지막 변경 번호 (change_log.seq 발급용)
+ * 이 행을 UPDATE 로 잠그고 번호를 올리므로 같은 고객의 변경은 커밋 순서대로 번호가 매겨집니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sync_cursor")
+public class SyncCursorEntity {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+}
@@ -1,6 +1,7 @@
 package com.example.health_care.repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -11,6 +12,14 @@ import com.example.health_care.entity.BlacklistedTokenEntity;
 public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedTokenEntity, Long> {
     boolean existsByToken(String token);
 
+    boolean existsByJti(String jti);
+
+    // 기동 시 적재: 아직 만료되지 않은 폐기 토큰
+    List<BlacklistedTokenEntity> findByExpiresAtAfter(LocalDateTime now);
+
+    // 다른 서버가 추가한 폐기 토큰 폴링
+    List<BlacklistedTokenEntity> findByCreatedAtGreaterThanEqual(LocalDateTime since);
+
     @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("delete from BlacklistedTokenEntity b where b.expiresAt < :now")
     int deleteAllExpired(LocalDateTime now);
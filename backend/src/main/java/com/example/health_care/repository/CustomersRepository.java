@@ -1,12 +1,31 @@
 package com.example.health_care.repository;
 
+import com.example.health_care.dto.RankingRow;
 import com.example.health_care.entity.CustomersEntity;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CustomersRepository extends JpaRepository<CustomersEntity, Long> {
      Optional<CustomersEntity> findById(String id);
      boolean existsById(String id);
+
+     // JWT 버전 확인용 (사용자가 없으면 empty)
+     @Query("select coalesce(c.tokenVersion, 0) from CustomersEntity c where c.id = :id")
+     Optional<Integer> findTokenVersionById(@Param("id") String id);
+
+     // 랭킹: 고객마다 최신 BODY 1건(가장 큰 idx)을 윈도우 함수로 골라 한 번의 SQL 로 조인 (id 순, keyset 페이지 기준)
+     // 호출하는 쪽 트랜잭션 안에서 스트림으로 읽고 닫아야 함
+     @Query(value = "SELECT c.id AS id, c.weight AS weight, c.age AS age, c.gender AS gender, c.height AS height, "
+               + "b.target_weight AS targetWeight, b.target_calories AS targetCalories "
+               + "FROM customers c "
+               + "LEFT JOIN (SELECT customer_id, target_weight, target_calories, "
+               + "ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY idx DESC) AS rn FROM body) b "
+               + "ON b.customer_id = c.idx AND b.rn = 1 "
+               + "ORDER BY c.id", nativeQuery = true)
+     Stream<RankingRow> streamRankingRows();
 }
@@ -0,0 +1,13 @@
+package com.example.health_care.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.health_care.entity.MealItemEntity;
+
+public interface MealItemRepository extends JpaRepository<MealItemEntity, Long> {
+
+    // 특정 날짜 RECORD 의 식사 항목 (추가된 순서)
+    List<MealItemEntity> findByRecord_IdxOrderByIdxAsc(Long recordIdx);
+}
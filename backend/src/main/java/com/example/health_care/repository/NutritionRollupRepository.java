@@ -0,0 +1,15 @@
+package com.example.health_care.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.health_care.entity.NutritionRollupEntity;
+
+public interface NutritionRollupRepository extends JpaRepository<NutritionRollupEntity, Long> {
+
+    // 기간별 집계 조회 (uk_rollup_customer_period 인덱스 범위 스캔)
+    List<NutritionRollupEntity> findByCustomer_IdxAndPeriodTypeAndPeriodStartBetweenOrderByPeriodStartAsc(
+            Long customerIdx, String periodType, LocalDate from, LocalDate to);
+}
@@ -1,9 +1,13 @@
 package com.example.health_care.repository;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.example.health_care.dto.DietRecordRow;
 import com.example.health_care.entity.RecordEntity;
 
 public interface RecordRepository extends JpaRepository<RecordEntity, Long> {
@@ -18,5 +22,45 @@ public interface RecordRepository extends JpaRepository<RecordEntity, Long> {
     List<RecordEntity> findByCustomer_IdxOrderByIdxDesc(Long customerIdx);
 
     // 특정 날짜 식단 조회
-    List<RecordEntity> findByCustomer_IdxAndRecordDate(Long customerIdx, Date recordDate);
+    List<RecordEntity> findByCustomer_IdxAndRecordDate(Long customerIdx, LocalDate recordDate);
+
+    // 특정 날짜 RECORD idx 만 조회
+    @Query("select r.idx from RecordEntity r where r.customer.idx = :customerIdx and r.recordDate = :recordDate")
+    Optional<Long> findIdxByCustomerIdxAndRecordDate(@Param("customerIdx") Long customerIdx,
+            @Param("recordDate") LocalDate recordDate);
+
+    // 칼로리 누적을 DB 안에서 한 번에 처리 (읽고-더하고-저장 사이에 다른 요청의 증가분이 사라지지 않도록)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE record SET "
+            + "caloriesm = NVL(caloriesm, 0) + :morning, "
+            + "caloriesl = NVL(caloriesl, 0) + :lunch, "
+            + "caloriesd = NVL(caloriesd, 0) + :dinner "
+            + "WHERE customer_id = :customerIdx AND record_date = :recordDate", nativeQuery = true)
+    int addCalories(@Param("customerIdx") Long customerIdx, @Param("recordDate") LocalDate recordDate,
+            @Param("morning") long morning, @Param("lunch") long lunch, @Param("dinner") long dinner);
+
+    // 그날 목표만 갱신 (칼로리 컬럼은 건드리지 않아 동시에 커밋된 addCalories 증가분이 유지됨)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE record SET target_weight = :targetWeight, target_calories = :targetCalories "
+            + "WHERE customer_id = :customerIdx AND record_date = :recordDate", nativeQuery = true)
+    int updateTargets(@Param("customerIdx") Long customerIdx, @Param("recordDate") LocalDate recordDate,
+            @Param("targetWeight") Double targetWeight, @Param("targetCalories") Integer targetCalories);
+
+    // 기간 식단 조회 (from ~ to 양 끝 포함): RECORD + 식사 항목을 한 번의 조회로 가져옴
+    // 행 = [RecordEntity, MealItemEntity(없으면 null)], uk_record_customer_date 인덱스 범위 스캔
+    @Query("select r, m from RecordEntity r left join MealItemEntity m on m.record = r "
+            + "where r.customer.idx = :customerIdx and r.recordDate between :from and :to "
+            + "order by r.recordDate, m.idx")
+    List<Object[]> findRangeWithItems(@Param("customerIdx") Long customerIdx, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // 하루 식단 조회 (읽기 전용 프로젝션): 고객 조회/RECORD/식사 항목을 SQL 한 번으로 가져옴
+    // 엔티티를 로딩하지 않으므로 영속성 컨텍스트·lazy 프록시가 생기지 않음
+    @Query("select new com.example.health_care.dto.DietRecordRow("
+            + "r.idx, r.recordDate, r.caloriesM, r.caloriesL, r.caloriesD, r.targetWeight, r.targetCalories, "
+            + "m.mealType, m.food, m.calories, m.eatenAt) "
+            + "from RecordEntity r join r.customer c left join MealItemEntity m on m.record = r "
+            + "where c.id = :customerId and r.recordDate = :recordDate order by m.idx")
+    List<DietRecordRow> findDietRows(@Param("customerId") String customerId,
+            @Param("recordDate") LocalDate recordDate);
 }
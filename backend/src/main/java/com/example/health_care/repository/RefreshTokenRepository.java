@@ -0,0 +1,29 @@
+package com.example.health_care.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.health_care.entity.RefreshTokenEntity;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    // 아직 안 쓴 토큰만 used 처리 (동시에 같은 토큰으로 두 번 refresh 하면 한쪽만 1)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshTokenEntity r set r.usedAt = :now where r.idx = :idx and r.usedAt is null")
+    int markUsed(@Param("idx") Long idx, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshTokenEntity r set r.revokedAt = :now where r.familyId = :familyId and r.revokedAt is null")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshTokenEntity r set r.revokedAt = :now where r.customerId = :customerId and r.revokedAt is null")
+    int revokeAllByCustomer(@Param("customerId") Long customerId, @Param("now") LocalDateTime now);
+}
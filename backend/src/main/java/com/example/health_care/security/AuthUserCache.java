@@ -0,0 +1,75 @@
+package com.example.health_care.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.health_care.repository.CustomersRepository;
+
+/**
+ * JWT 인증 시 사용자 상태(토큰 버전, 존재 여부) 확인용 단기 캐시입니다.
+ * - ttl-seconds 동안은 DB 조회 없이 캐시 값으로 판단 (0 이면 매번 조회)
+ * - 비밀번호/계정 변경 시 커밋 후 해당 사용자 항목을 무효화
+ * 다른 서버 인스턴스의 변경은 최대 TTL 만큼 늦게 반영됩니다.
+ */
+@Component
+public class AuthUserCache {
+
+    // version 이 null 이면 없는 사용자
+    private record Cached(Integer version, long loadedAtMillis) {}
+
+    private final CustomersRepository customersRepository;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+
+    public AuthUserCache(CustomersRepository customersRepository,
+            @Value("${jwt.user-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${jwt.user-cache.max-entries:10000}") int maxEntries) {
+        this.customersRepository = customersRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    // 토큰의 버전이 사용자의 현재 버전과 같은지 (사용자가 없으면 false)
+    public boolean isCurrent(String username, int tokenVersion) {
+        Integer current = currentVersion(username);
+        return current != null && current == tokenVersion;
+    }
+
+    public Integer currentVersion(String username) {
+        long now = System.currentTimeMillis();
+        if (ttlMillis > 0) {
+            Cached cached = cache.get(username);
+            if (cached != null && now - cached.loadedAtMillis() < ttlMillis) {
+                return cached.version();
+            }
+        }
+        Integer version = customersRepository.findTokenVersionById(username).orElse(null);
+        if (ttlMillis > 0) {
+            if (cache.size() >= maxEntries) {
+                cache.clear(); // 크기 제한: 단기 캐시라 통째로 비워도 다시 채워짐
+            }
+            cache.put(username, new Cached(version, now));
+        }
+        return version;
+    }
+
+    // 트랜잭션 안이면 커밋 후, 아니면 바로 무효화
+    public void invalidate(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(username);
+                }
+            });
+        } else {
+            cache.remove(username);
+        }
+    }
+}
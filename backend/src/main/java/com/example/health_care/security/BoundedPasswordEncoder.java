@@ -0,0 +1,99 @@
+package com.example.health_care.security;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * BCrypt 해시/비교를 전용 풀(passwordHashExecutor)에서 실행하는 PasswordEncoder
+ * - 요청 스레드는 결과만 기다리므로 동시에 도는 BCrypt 는 풀 크기만큼으로 제한
+ * - 대기열이 가득 차거나 wait-timeout 안에 끝나지 않으면 PasswordHashingBusyException (503)
+ *   wait-timeout 은 호출자가 기다리는 시간만 제한함: 아직 대기열에 있는 작업은 빼내지만
+ *   이미 실행 중인 BCrypt 는 인터럽트로 멈추지 않으므로 끝까지 돌고 결과만 버려짐
+ * - upgradeEncoding: 저장된 해시의 cost 가 설정값보다 낮으면 true
+ *   (로그인 성공 시 DaoAuthenticationProvider 가 UserDetailsPasswordService 로 새 해시 저장)
+ * 메트릭: password.hash (op=encode/matches 소요 시간, 대기 포함), password.hash.rejected,
+ * password.hash.queue, password.hash.active
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final long waitTimeoutMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(int strength, ThreadPoolTaskExecutor executor, long waitTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.executor = executor;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.encodeTimer = Timer.builder("password.hash").tag("op", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash").tag("op", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // 해시 문자열만 보고 판단 (BCrypt 연산 없음)
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        long started = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException("요청이 많아 잠시 후 다시 시도해 주세요.");
+        }
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false); // 대기열에 남아 있을 때만 효과 (실행 중이면 그대로 완료)
+            rejected.increment();
+            throw new PasswordHashingBusyException("요청이 많아 잠시 후 다시 시도해 주세요.");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("비밀번호 처리가 중단되었습니다.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.health_care.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 파라미터(Long)에 로그인 사용자의 customers.idx 를 주입합니다.
+ * JWT 의 cid 클레임에서 꺼내므로 이메일로 고객을 다시 조회하지 않습니다.
+ * 예) public ResponseEntity<...> get(@CurrentCustomer Long customerIdx)
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentCustomer {
+}
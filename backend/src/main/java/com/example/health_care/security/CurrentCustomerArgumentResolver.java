@@ -0,0 +1,52 @@
+package com.example.health_care.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.repository.CustomersRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * @CurrentCustomer Long 파라미터 처리
+ * principal 에 idx 가 있으면 그대로, cid 클레임 없는 이전 토큰이면 이메일로 한 번 조회합니다.
+ * 인증되지 않은 요청이면 AuthenticationException (시큐리티 필터가 401 로 응답)
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentCustomerArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final CustomersRepository customersRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentCustomer.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            throw new AuthenticationCredentialsNotFoundException("로그인이 필요합니다.");
+        }
+        if (authentication.getPrincipal() instanceof CustomerPrincipal principal
+                && principal.getCustomerIdx() != null) {
+            return principal.getCustomerIdx();
+        }
+        return customersRepository.findById(authentication.getName())
+                .map(CustomersEntity::getIdx)
+                .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
+    }
+}
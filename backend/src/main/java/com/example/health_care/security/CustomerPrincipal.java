@@ -0,0 +1,27 @@
+package com.example.health_care.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.Getter;
+
+/**
+ * 로그인 사용자 principal (Spring Security User + customers.idx + 토큰 버전)
+ * 로그인 시 DB 에서, 이후 요청에서는 검증된 JWT claims 에서 만들어집니다.
+ * customerIdx 는 cid 클레임이 없는 이전 토큰이면 null 입니다.
+ */
+@Getter
+public class CustomerPrincipal extends User {
+
+    private final Long customerIdx;
+    private final int tokenVersion;
+
+    public CustomerPrincipal(String username, String password, Collection<? extends GrantedAuthority> authorities,
+            Long customerIdx, int tokenVersion) {
+        super(username, password, authorities);
+        this.customerIdx = customerIdx;
+        this.tokenVersion = tokenVersion;
+    }
+}
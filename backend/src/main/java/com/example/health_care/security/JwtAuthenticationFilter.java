@@ -2,6 +2,7 @@ package com.example.health_care.security;
 
 import java.io.IOException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,21 +14,37 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.health_care.service.TokenBlacklistService;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final AuthUserCache authUserCache;
+    // claims: 검증된 토큰의 claims 로 principal 생성 (요청마다 사용자 조회 없음, 버전 확인은 단기 캐시)
+    // database: 기존처럼 요청마다 loadUserByUsername
+    private final boolean principalFromClaims;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+            UserDetailsService userDetailsService,
+            TokenBlacklistService tokenBlacklistService,
+            AuthUserCache authUserCache,
+            @Value("${jwt.principal-mode:claims}") String principalMode) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.authUserCache = authUserCache;
+        this.principalFromClaims = !"database".equalsIgnoreCase(principalMode);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -38,19 +55,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (StringUtils.hasText(jwt)) {
 
-                // 1) 블랙리스트 토큰 즉시 차단
-                if (tokenBlacklistService.isBlacklisted(jwt)) {
-                    log.debug("[JWT] blacklisted token blocked");
-                }
-                // 2) 유효성 검증 + 아직 인증 안된 경우만 컨텍스트 설정
-                else if (tokenProvider.validateToken(jwt)
-                        && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // 아직 인증 안된 경우만 검증(한 번 파싱) 후 컨텍스트 설정
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    String username = tokenProvider.getUsernameFromToken(jwt);
+                    Claims claims = tokenProvider.verify(jwt);
+                    // access 토큰만 인증에 사용 (같은 키로 서명한 비밀번호 복구 토큰 등은 거부)
+                    if (claims != null && !tokenProvider.isAccessToken(claims)) {
+                        log.debug("[JWT] non-access token rejected");
+                        claims = null;
+                    }
+                    // 블랙리스트(jti, 메모리 조회) 토큰 차단
+                    if (claims != null && tokenBlacklistService.isBlacklisted(tokenProvider.getRevocationKey(jwt, claims))) {
+                        log.debug("[JWT] blacklisted token blocked");
+                        claims = null;
+                    }
+                    String username = claims != null ? claims.getSubject() : null;
 
-                    if (StringUtils.hasText(username)) {
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = StringUtils.hasText(username) ? loadPrincipal(username, claims) : null;
 
+                    if (userDetails == null) {
+                        if (username != null) {
+                            log.debug("[JWT] stale token version for user: {}", username);
+                        }
+                    } else {
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails, null, userDetails.getAuthorities());
@@ -69,6 +96,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // 토큰 버전이 현재 버전과 다르면(비밀번호 변경 등) null
+    private UserDetails loadPrincipal(String username, Claims claims) {
+        int tokenVersion = tokenProvider.getTokenVersion(claims);
+        if (!principalFromClaims) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (userDetails instanceof CustomerPrincipal cp && cp.getTokenVersion() != tokenVersion) {
+                return null;
+            }
+            return userDetails;
+        }
+        if (!authUserCache.isCurrent(username, tokenVersion)) {
+            return null;
+        }
+        return new CustomerPrincipal(username, "", tokenProvider.getAuthorities(claims),
+                tokenProvider.getCustomerIdx(claims), tokenVersion);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
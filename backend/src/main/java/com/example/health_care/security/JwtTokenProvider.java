@@ -1,134 +1,227 @@
 package com.example.health_care.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
 import javax.crypto.SecretKey;
-import org.hibernate.validator.internal.util.stereotypes.Lazy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import com.example.health_care.service.CustomersService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    @Lazy
     private final CustomersService cds;
 
     private static final String SECRET_KEY = "756be4cf9581add13ddb3ab3e2f1e75f27a0661af1c1225a89ef9a1d44d3f03b";
-    private int jwtExpirationInMs = 24 * 60 * 60 * 1000;
-
-    private SecretKey getSecretKey() {
-        return io.jsonwebtoken.security.Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    // access 토큰은 짧게 (로그아웃 블랙리스트도 이 시간만 유지), 이후는 refresh 토큰으로 재발급
+    private final long jwtExpirationInMs;
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_VERSION = "ver";
+    private static final String CLAIM_CUSTOMER_IDX = "cid";
+    // 토큰 용도 (같은 키로 서명하는 복구 토큰이 API 인증에 쓰이지 않도록 구분)
+    private static final String CLAIM_TYPE = "typ";
+    private static final String TYPE_ACCESS = "ACCESS";
+    private static final String TYPE_PW_RESET = "PW_RESET";
+
+    // 키와 파서는 한 번만 만들어 재사용 (JwtParser 는 불변이라 여러 스레드에서 공유 가능)
+    private final SecretKey secretKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parser().verifyWith(secretKey).build();
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtTokenProvider(@Lazy CustomersService cds,
+            @Value("${jwt.verified-cache.max-entries:10000}") int verifiedCacheMaxEntries,
+            @Value("${jwt.access-token-minutes:15}") long accessTokenMinutes) {
+        this.cds = cds;
+        this.jwtExpirationInMs = accessTokenMinutes * 60 * 1000;
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheMaxEntries);
     }
 
     public String createToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        int tokenVersion = userPrincipal instanceof CustomerPrincipal cp ? cp.getTokenVersion() : 0;
+        Long customerIdx = userPrincipal instanceof CustomerPrincipal cp ? cp.getCustomerIdx() : null;
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return createAccessToken(userPrincipal.getUsername(), customerIdx, tokenVersion, roles);
+    }
+
+    // refresh 로 재발급할 때도 같은 형식 (DB 조회 없이 refresh 토큰 행의 값으로)
+    public String createAccessToken(String username, Long customerIdx, int tokenVersion, List<String> roles) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
 
-        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
         return Jwts.builder()
                 .signWith(secretKey) // 아래의 정보들을 개인키로 암호화한 전자서명 생성
-                .subject(userPrincipal.getUsername()) // 여기서부터 토큰과 관련된 정보 저장
+                .subject(username) // 여기서부터 토큰과 관련된 정보 저장
                 .issuer("com.example") // 발급자:서비스이름
+                .id(UUID.randomUUID().toString()) // jti: 로그아웃(블랙리스트) 키
                 .issuedAt(new Date()) // 발급날짜
                 .expiration(expiryDate) // 만료날짜
+                .claim(CLAIM_ROLES, roles) // 요청마다 DB 조회 없이 권한 복원
+                .claim(CLAIM_VERSION, tokenVersion) // 비밀번호 변경 시 올라가는 사용자 토큰 버전
+                .claim(CLAIM_CUSTOMER_IDX, customerIdx) // customers.idx (서비스에서 이메일로 다시 조회하지 않도록)
+                .claim(CLAIM_TYPE, TYPE_ACCESS)
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        String username = getUsernameFromToken(token);
-        UserDetails userDetails = cds.loadUserByUsername(username);
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    // access 토큰 유효 시간 (초)
+    public long getAccessTokenSeconds() {
+        return jwtExpirationInMs / 1000;
     }
 
-    // 클라이언트가 보낸 토큰(메소드 인자 String token)을 검증하는 메소드
-    public String getUsernameFromToken(String token) {
+    // API 인증에 쓸 수 있는 토큰인지 (typ 없는 이전 access 토큰은 허용, 복구 토큰 등 다른 용도는 거부)
+    public boolean isAccessToken(Claims claims) {
+        Object type = claims.get(CLAIM_TYPE);
+        return type == null || TYPE_ACCESS.equals(type);
+    }
+
+    // 블랙리스트 키: jti (jti 없이 발급된 이전 토큰은 SHA-256(토큰) hex)
+    public String getRevocationKey(String token, Claims claims) {
+        String jti = claims.getId();
+        if (StringUtils.hasText(jti)) {
+            return jti;
+        }
+        return tokenHashKey(token);
+    }
+
+    // jti 없는 토큰의 블랙리스트 키 (소문자 hex, db/blacklisted_tokens_jti.sql 의 백필과 같은 값)
+    public static String tokenHashKey(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    // ver 클레임 (이 기능 이전에 발급된 토큰은 없으므로 0)
+    public int getTokenVersion(Claims claims) {
+        Object ver = claims.get(CLAIM_VERSION);
+        return ver instanceof Number n ? n.intValue() : 0;
+    }
 
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+    // cid 클레임 (이 기능 이전에 발급된 토큰은 null)
+    public Long getCustomerIdx(Claims claims) {
+        Object cid = claims.get(CLAIM_CUSTOMER_IDX);
+        return cid instanceof Number n ? n.longValue() : null;
+    }
 
-        // subject 는 username를 저장했으므로 토큰 값을 분해해서 얻은 subject 는 username 이다.
-        return claims.getSubject();
+    // roles 클레임 (없으면 ROLE_USER)
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        Object roles = claims.get(CLAIM_ROLES);
+        if (roles instanceof Collection<?> names && !names.isEmpty()) {
+            List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+            for (Object name : names) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(name)));
+            }
+            return authorities;
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
     }
 
-    // 로그아웃 추가 코드
-    public boolean validateToken(String authToken) {
+    public Authentication getAuthentication(String token) {
+        String username = getUsernameFromToken(token);
+        UserDetails userDetails = cds.loadUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    }
+
+    /**
+     * 토큰 서명/만료를 한 번 검증하고 claims 를 돌려줍니다. (실패하면 null)
+     * 요청마다 이 메소드만 호출하고, 필요한 값(subject, 만료 등)은 반환된 claims 에서 꺼내 씁니다.
+     * 최근 검증한 토큰은 만료 전까지 캐시에서 바로 반환합니다.
+     */
+    public Claims verify(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            SecretKey secretKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
-            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(authToken);
-            return true;
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(token, claims);
+            return claims;
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
+        } catch (MalformedJwtException ex) {
+            log.error("Invalid JWT token");
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+        } catch (JwtException ex) {
+            log.error("JWT verification failed: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    // 클라이언트가 보낸 토큰(메소드 인자 String token)을 검증하는 메소드
+    public String getUsernameFromToken(String token) {
+        // subject 는 username를 저장했으므로 토큰 값을 분해해서 얻은 subject 는 username 이다.
+        Claims claims = verify(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    // 로그아웃 추가 코드
+    public boolean validateToken(String authToken) {
+        return verify(authToken) != null;
     }
 
     public String getUsername(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSecretKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (Exception e) {
-            return null;
-        }
+        return getUsernameFromToken(token);
     }
 
     public LocalDateTime getExpiry(String token) {
-        try {
-            Date exp = Jwts.parser()
-                    .verifyWith(getSecretKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getExpiration();
-            return exp == null ? null
-                    : exp.toInstant()
-                            .atZone(ZoneId.systemDefault())
-                            .toLocalDateTime();
-        } catch (Exception e) {
-            return null;
-        }
-        //
+        Claims claims = verify(token);
+        return claims == null ? null : getExpiry(claims);
+    }
+
+    public LocalDateTime getExpiry(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp == null ? null
+                : exp.toInstant()
+                        .atZone(ZoneId.systemDefault())
+                        .toLocalDateTime();
     }
 
     // >>> [ADDED] (비밀번호 재설정용) 15분짜리 단기 토큰 발급
     public String createRecoveryToken(String userId) {
         Date expiry = new Date(System.currentTimeMillis() + 15 * 60 * 1000);
         return Jwts.builder()
-                .signWith(getSecretKey())
+                .signWith(secretKey)
                 .subject(userId)
                 .issuer("com.example")
                 .issuedAt(new Date())
                 .expiration(expiry)
-                .claim("typ", "PW_RESET")
+                .claim(CLAIM_TYPE, TYPE_PW_RESET)
                 .compact();
     }
 
     // >>> [ADDED] 복구 토큰 검증 + 사용자ID 추출 (유형 체크)
     public String validateAndGetUserFromRecoveryToken(String token) {
         try {
-            Claims c = Jwts.parser().verifyWith(getSecretKey()).build()
-                    .parseSignedClaims(token).getPayload();
-            if (!"PW_RESET".equals(c.get("typ")))
+            Claims c = parser.parseSignedClaims(token).getPayload();
+            if (!TYPE_PW_RESET.equals(c.get(CLAIM_TYPE)))
                 return null;
             return c.getSubject();
         } catch (Exception e) {
@@ -0,0 +1,12 @@
+package com.example.health_care.security;
+
+/**
+ * 비밀번호 해시 풀이 가득 차서 요청을 바로 거절했을 때 (잠시 후 재시도)
+ * 응답은 ApiExceptionHandler 에서 503 + Retry-After 로 매핑
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
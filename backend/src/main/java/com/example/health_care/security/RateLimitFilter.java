@@ -0,0 +1,144 @@
+package com.example.health_care.security;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.health_care.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 비용이 큰 공개 엔드포인트(Gemini, 공공데이터 등)의 요청 제한 필터입니다.
+ * JwtAuthenticationFilter 다음에 실행되어, 로그인 사용자는 사용자 ID로,
+ * 비로그인 요청은 클라이언트 IP로 토큰 버킷을 나눠 씁니다.
+ * 한도를 넘으면 429 + Retry-After 로 응답합니다.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> groupNames;
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.groupNames = new ArrayList<>(properties.getGroups().keySet());
+        for (String group : groupNames) {
+            rejectedCounters.put(group, Counter.builder("ratelimit.rejected")
+                    .description("요청 제한으로 거절된 요청 수")
+                    .tag("group", group)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("ratelimit.buckets", buckets, Map::size)
+                .description("메모리에 유지 중인 버킷 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String group = matchGroup(request.getRequestURI());
+        if (group != null) {
+            RateLimitProperties.Group config = properties.getGroups().get(group);
+            String key = group + ':' + clientKey(request);
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(config.getCapacity(), config.getRefillPerMinute(), now));
+
+            long waitNanos = bucket.tryConsume(now);
+            if (waitNanos > 0) {
+                rejectedCounters.get(group).increment();
+                reject(response, group, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String matchGroup(String uri) {
+        for (String group : groupNames) {
+            for (String pattern : properties.getGroups().get(group).getPatterns()) {
+                if (pathMatcher.match(pattern, uri)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    // 로그인 사용자는 "u:<id>", 비로그인은 "ip:<주소>"
+    private String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "u:" + auth.getName();
+        }
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwarded)) {
+                int comma = forwarded.indexOf(',');
+                return "ip:" + (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, String group, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("[RATE-LIMIT] rejected group={}, retryAfter={}s", group, retryAfter);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("error", "Too Many Requests");
+        errorDetails.put("message", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        errorDetails.put("timestamp", new Date());
+        errorDetails.put("status", 429);
+        errorDetails.put("retryAfter", retryAfter);
+        mapper.writeValue(response.getWriter(), errorDetails);
+    }
+
+    // 오래 사용되지 않은 버킷 정리 (idle-evict-seconds 는 버킷이 다시 가득 차는 시간보다 길게 설정)
+    @Scheduled(fixedDelay = 60_000L)
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime() - TimeUnit.SECONDS.toNanos(properties.getIdleEvictSeconds());
+        buckets.values().removeIf(bucket -> bucket.lastRefillNanos() < threshold);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.health_care.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 락 없이 CAS 로만 동작하는 토큰 버킷입니다.
+ * 상태(남은 토큰, 마지막 충전 시각)를 불변 객체로 묶어 AtomicReference 로 교체합니다.
+ */
+final class TokenBucket {
+
+    private record State(double tokens, long refilledAtNanos) {}
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, int refillPerMinute, long nowNanos) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = Math.max(1, refillPerMinute) / 60_000_000_000d;
+        this.state = new AtomicReference<>(new State(this.capacity, nowNanos));
+    }
+
+    /**
+     * 토큰 1개를 소비합니다.
+     * @return 0 이면 허용, 양수면 다음 토큰까지 기다려야 하는 시간(ns)
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            long elapsed = Math.max(0, nowNanos - current.refilledAtNanos());
+            double tokens = Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+            if (tokens < 1.0) {
+                return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1.0, nowNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    long lastRefillNanos() {
+        return state.get().refilledAtNanos();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.health_care.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * 최근에 서명 검증을 통과한 JWT 의 claims 캐시 (LRU, 최대 maxEntries 개)
+ * - 키는 토큰 원문이 아닌 SHA-256 digest
+ * - 항목은 토큰 만료 시각까지만 유효 (만료된 항목은 조회 시 제거)
+ * 블랙리스트 확인은 캐시와 별개로 매 요청 수행해야 합니다.
+ */
+public class VerifiedTokenCache {
+
+    private record Verified(Claims claims, long expiresAtMillis) {}
+
+    private final Map<String, Verified> cache;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verified> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Claims get(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            Verified verified = cache.get(key);
+            if (verified == null) {
+                return null;
+            }
+            if (verified.expiresAtMillis() <= now) {
+                cache.remove(key);
+                return null;
+            }
+            return verified.claims();
+        }
+    }
+
+    // 만료 시각이 없는 토큰은 캐시하지 않음
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        String key = digest(token);
+        synchronized (cache) {
+            cache.put(key, new Verified(claims, claims.getExpiration().getTime()));
+        }
+    }
+
+    public void remove(String token) {
+        String key = digest(token);
+        synchronized (cache) {
+            cache.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
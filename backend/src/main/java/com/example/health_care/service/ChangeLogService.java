@@ -0,0 +1,179 @@
+package com.example.health_care.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.health_care.dto.SyncResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 고객별 변경 로그 (change_log) 기록/조회 서비스입니다.
+ * - 식단/신체/목표/프로필/즐겨찾기 변경과 같은 트랜잭션에서 기록 (MANDATORY)
+ * - seq 는 sync_cursor 행을 UPDATE 로 잠그고 발급하므로 고객별로 커밋 순서와 일치
+ * - 보관 기간이 지난 로그는 매일 삭제, 그보다 오래된 커서로 요청하면 reset 응답
+ * - 기록할 때 CustomerDataChangedEvent 발행 (커밋 후 리스너가 처리)
+ */
+@Slf4j
+@Service
+public class ChangeLogService {
+
+    // 변경 1건 (data 는 JSON 으로 직렬화해서 저장)
+    public record Change(String entity, String op, String key, Object data) {}
+
+    private static final int MAX_LIMIT = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO change_log "
+            + "(customer_id, seq, entity, op, ref_key, payload, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL = "SELECT seq, entity, op, ref_key, payload, created_at FROM change_log "
+            + "WHERE customer_id = ? AND seq > ? ORDER BY seq FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long retentionDays;
+
+    public ChangeLogService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${sync.change-log.retention-days:30}") long retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.retentionDays = retentionDays;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long customerIdx, String entity, String op, Object key, Object data) {
+        record(customerIdx, List.of(new Change(entity, op, key == null ? null : key.toString(), data)));
+    }
+
+    // 여러 건을 한 번에 기록 (seq 를 건수만큼 한 번에 발급 후 JDBC 배치 INSERT)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long customerIdx, List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        long last = reserveSeq(customerIdx, changes.size());
+        long seq = last - changes.size();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            rows.add(new Object[] { customerIdx, ++seq, change.entity(), change.op(), change.key(),
+                    toJson(change.data()), now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        // 커밋 후 처리(리더보드 갱신 등)를 위한 이벤트
+        eventPublisher.publishEvent(new CustomerDataChangedEvent(customerIdx,
+                changes.stream().map(Change::entity).collect(Collectors.toSet())));
+    }
+
+    // since 이후 변경 조회 (since 가 없으면 현재 커서만 알려주고 reset)
+    @Transactional(readOnly = true)
+    public SyncResponse getChanges(Long customerIdx, Long since, int limit) {
+        long lastSeq = currentSeq(customerIdx);
+
+        if (since == null || since < 0 || since > lastSeq || isPurged(customerIdx, since, lastSeq)) {
+            return SyncResponse.builder().cursor(lastSeq).reset(true).changes(List.of()).build();
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<SyncResponse.Change> changes = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new SyncResponse.Change(
+                        rs.getLong("seq"),
+                        rs.getString("entity"),
+                        rs.getString("op"),
+                        rs.getString("ref_key"),
+                        fromJson(rs.getString("payload")),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                customerIdx, since, size);
+
+        long cursor = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return SyncResponse.builder()
+                .cursor(cursor)
+                .hasMore(cursor < lastSeq)
+                .changes(changes)
+                .build();
+    }
+
+    @Scheduled(cron = "${sync.change-log.purge-cron:0 40 3 * * *}")
+    public void purgeExpired() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int deleted = jdbcTemplate.update("DELETE FROM change_log WHERE created_at < ?", cutoff);
+        if (deleted > 0) {
+            log.info("[SYNC] 보관 기간 지난 변경 로그 삭제: {}", deleted);
+        }
+    }
+
+    /**** 메소드 ****/
+    // 고객 커서 행을 잠그고 count 만큼 증가, 증가 후 값 반환
+    // 첫 변경이면 INSERT, 동시에 다른 트랜잭션이 먼저 INSERT 했으면 다시 UPDATE
+    private long reserveSeq(Long customerIdx, int count) {
+        String update = "UPDATE sync_cursor SET last_seq = last_seq + ? WHERE customer_id = ?";
+        if (jdbcTemplate.update(update, count, customerIdx) == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO sync_cursor (customer_id, last_seq) VALUES (?, ?)", customerIdx,
+                        count);
+                return count;
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(update, count, customerIdx);
+            }
+        }
+        return currentSeq(customerIdx);
+    }
+
+    private long currentSeq(Long customerIdx) {
+        List<Long> seq = jdbcTemplate.queryForList("SELECT last_seq FROM sync_cursor WHERE customer_id = ?",
+                Long.class, customerIdx);
+        return seq.isEmpty() ? 0L : seq.get(0);
+    }
+
+    // since 다음 번호부터 로그가 남아 있지 않으면 (보관 기간 지나 삭제) 델타로 이어 받을 수 없음
+    private boolean isPurged(Long customerIdx, long since, long lastSeq) {
+        if (since == lastSeq) {
+            return false;
+        }
+        Long minSeq = jdbcTemplate.queryForObject("SELECT MIN(seq) FROM change_log WHERE customer_id = ?",
+                Long.class, customerIdx);
+        return minSeq == null || minSeq > since + 1;
+    }
+
+    private String toJson(Object data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("변경 로그 직렬화 실패", e);
+        }
+    }
+
+    private JsonNode fromJson(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("[SYNC] 변경 로그 payload 파싱 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+}
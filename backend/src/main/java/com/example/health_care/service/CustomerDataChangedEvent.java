@@ -0,0 +1,6 @@
+package com.example.health_care.service;
+
+import java.util.Set;
+
+// 고객 데이터(식단/신체/목표/프로필/즐겨찾기) 변경 이벤트, 변경 로그를 남긴 트랜잭션 안에서 발행
+public record CustomerDataChangedEvent(Long customerIdx, Set<String> entities) {}
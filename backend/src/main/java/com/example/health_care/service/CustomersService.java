@@ -1,28 +1,37 @@
 package com.example.health_care.service;
 
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.health_care.dto.BodyRequest;
 import com.example.health_care.dto.CustomersProfileDTO;
 import com.example.health_care.dto.SignupRequest;
 import com.example.health_care.dto.UpdateAccountRequest;
 import com.example.health_care.entity.BodyEntity;
+import com.example.health_care.entity.ChangeLogEntity;
 import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.entity.Gender;
 import com.example.health_care.entity.GoalEntity;
-import com.example.health_care.entity.RecordEntity;
 import com.example.health_care.repository.BodyRepository;
 import com.example.health_care.repository.CustomersRepository;
 import com.example.health_care.repository.GoalRepository;
 import com.example.health_care.repository.RecordRepository;
+import com.example.health_care.security.AuthUserCache;
+import com.example.health_care.security.CustomerPrincipal;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,25 +39,50 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 @Service
-public class CustomersService implements UserDetailsService {
+public class CustomersService implements UserDetailsService, UserDetailsPasswordService {
+
+        private static final String INSERT_TARGET_RECORD_SQL = "INSERT INTO record "
+                        + "(customer_id, record_date, target_weight, target_calories) VALUES (?, ?, ?, ?)";
 
         private final CustomersRepository customersRepository;
         private final PasswordEncoder passwordEncoder;
         private final BodyRepository bodyRepository;
         private final GoalRepository goalRepository;
         private final RecordRepository recordRepository;
+        private final ChangeLogService changeLogService;
+        private final AuthUserCache authUserCache;
+        private final RefreshTokenService refreshTokenService;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
 
-        @Transactional
+        // 변경 로그(/api/sync)에 남기는 신체/목표/프로필 내용
+        private record BodyChange(Double weight, Double height, Integer age, Gender gender, Double inbody,
+                        Double targetWeight, Integer targetCalories, LocalDateTime recordDate) {
+                BodyChange(BodyEntity body) {
+                        this(body.getWeight(), body.getHeight(), body.getAge(), body.getGender(), body.getInbody(),
+                                        body.getTargetWeight(), body.getTargetCalories(), body.getRecordDate());
+                }
+        }
+
+        private record GoalChange(Double targetWeight, Integer targetCalories, LocalDateTime recordDate) {}
+
+        private record ProfileChange(Double weight, Double height, Integer age, Gender gender) {}
+
+        // BCrypt(해시 풀 대기 포함)는 트랜잭션 밖에서 먼저 끝내고, DB 커넥션은 저장할 때만 잡음
         public CustomersEntity signup(SignupRequest req) {
                 log.debug("[SIGNUP:SERVICE] existsById? id={}", req.getId()); // log 확인
                 if (customersRepository.existsById(req.getId())) {
                         log.warn("[SIGNUP:SERVICE] duplicate id={}", req.getId());
                         throw new IllegalArgumentException("이미 존재하는 ID입니다.");
                 }
+                String encodedPassword = passwordEncoder.encode(req.getPassword()); // 비밀번호 암호화
+                return transactionTemplate.execute(status -> createCustomer(req, encodedPassword));
+        }
 
+        private CustomersEntity createCustomer(SignupRequest req, String encodedPassword) {
                 CustomersEntity user = CustomersEntity.builder()
                                 .id(req.getId())
-                                .password(passwordEncoder.encode(req.getPassword())) // 비밀번호 암호화
+                                .password(encodedPassword)
                                 .weight(req.getWeight())
                                 .age(req.getAge())
                                 .gender(req.getGender())
@@ -63,7 +97,7 @@ public class CustomersService implements UserDetailsService {
                                 .height(savedUser.getHeight())
                                 .age(savedUser.getAge())
                                 .gender(savedUser.getGender())
-                                .recordDate(new Date())
+                                .recordDate(LocalDateTime.now())
                                 .build();
 
                 bodyRepository.save(bodyEntity);
@@ -76,11 +110,10 @@ public class CustomersService implements UserDetailsService {
                 CustomersEntity user = customersRepository.findById(id)
                                 .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다 : " + id));
 
-                return org.springframework.security.core.userdetails.User.builder()
-                                .username(user.getId())
-                                .password(user.getPassword())
-                                .roles("USER")
-                                .build();
+                // idx 와 토큰 버전을 함께 담아 로그인 시 JWT cid/ver 클레임으로 발급
+                return new CustomerPrincipal(user.getId(), user.getPassword(),
+                                List.of(new SimpleGrantedAuthority("ROLE_USER")), user.getIdx(),
+                                user.getTokenVersion() == null ? 0 : user.getTokenVersion());
         }
 
         @Transactional(readOnly = true)
@@ -120,15 +153,25 @@ public class CustomersService implements UserDetailsService {
                                 .gender(bodyRequest.getGender())
                                 .height(bodyRequest.getHeight()) // 형 변환된 값 사용
                                 .inbody(bodyRequest.getInbody())
-                                .recordDate(new Date()) // 현재 날짜를 기록
+                                .recordDate(LocalDateTime.now()) // 현재 날짜를 기록
                                 .build();
 
                 // 3. Repository를 사용하여 데이터베이스에 저장
                 bodyRepository.save(bodyEntity);
+                changeLogService.record(customer.getIdx(), ChangeLogEntity.BODY, ChangeLogEntity.OP_ADD,
+                                bodyEntity.getIdx(), new BodyChange(bodyEntity));
         }
 
-        @Transactional
+        // 새 비밀번호 해시는 트랜잭션 밖에서 먼저 만들어 둠 (해시 풀을 기다리는 동안 DB 커넥션을 잡지 않도록)
         public void updateProfileAndSaveGoal(String customerId, UpdateAccountRequest req) {
+                String encodedPassword = req.getNewPassword() != null && !req.getNewPassword().isBlank()
+                                ? passwordEncoder.encode(req.getNewPassword())
+                                : null;
+                transactionTemplate.executeWithoutResult(
+                                status -> saveProfileAndGoal(customerId, req, encodedPassword));
+        }
+
+        private void saveProfileAndGoal(String customerId, UpdateAccountRequest req, String encodedPassword) {
                 // 1. 고객 엔티티를 찾아서 업데이트
                 CustomersEntity customer = customersRepository.findById(customerId)
                                 .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
@@ -139,12 +182,20 @@ public class CustomersService implements UserDetailsService {
                 Optional.ofNullable(req.getAge()).ifPresent(customer::setAge);
                 Optional.ofNullable(req.getGender()).ifPresent(customer::setGender);
 
-                // 2. 비밀번호 변경
-                if (req.getNewPassword() != null && !req.getNewPassword().isBlank()) {
-                        customer.setPassword(passwordEncoder.encode(req.getNewPassword()));
+                // 2. 비밀번호 변경 (기존에 발급된 토큰은 버전이 달라져 더 이상 인증되지 않음)
+                if (encodedPassword != null) {
+                        customer.setPassword(encodedPassword);
+                        bumpTokenVersion(customer);
                 }
 
                 customersRepository.save(customer);
+                authUserCache.invalidate(customer.getId());
+                if (encodedPassword != null) {
+                        refreshTokenService.revokeAll(customer.getIdx());
+                }
+                changeLogService.record(customer.getIdx(), ChangeLogEntity.PROFILE, ChangeLogEntity.OP_UPDATE, null,
+                                new ProfileChange(customer.getWeight(), customer.getHeight(), customer.getAge(),
+                                                customer.getGender()));
 
                 // 3. 목표 정보가 DTO에 포함된 경우
                 if (req.getTargetWeight() != null || req.getTargetCalories() != null) {
@@ -153,9 +204,12 @@ public class CustomersService implements UserDetailsService {
                                         .customer(customer)
                                         .targetWeight(req.getTargetWeight())
                                         .targetCalories(req.getTargetCalories())
-                                        .recordDate(new Date()) // record_date를 사용하여 목표 생성
+                                        .recordDate(LocalDateTime.now()) // record_date를 사용하여 목표 생성
                                         .build();
                         goalRepository.save(goalEntity);
+                        changeLogService.record(customer.getIdx(), ChangeLogEntity.GOAL, ChangeLogEntity.OP_ADD,
+                                        goalEntity.getIdx(), new GoalChange(goalEntity.getTargetWeight(),
+                                                        goalEntity.getTargetCalories(), goalEntity.getRecordDate()));
 
                         // ⭐ 2. BODY 테이블에 현재 신체 정보와 목표를 함께 기록
                         BodyEntity bodyEntity = BodyEntity.builder()
@@ -166,43 +220,78 @@ public class CustomersService implements UserDetailsService {
                                         .gender(req.getGender())
                                         .targetWeight(req.getTargetWeight())
                                         .targetCalories(req.getTargetCalories())
-                                        .recordDate(new Date())
+                                        .recordDate(LocalDateTime.now())
                                         .build();
                         bodyRepository.save(bodyEntity);
+                        changeLogService.record(customer.getIdx(), ChangeLogEntity.BODY, ChangeLogEntity.OP_ADD,
+                                        bodyEntity.getIdx(), new BodyChange(bodyEntity));
 
-                        // ⭐ 3. RECORD 테이블에 초기 목표 기록
-                        RecordEntity recordEntity = RecordEntity.builder()
-                                        .customer(customer)
-                                        .recordDate(new Date())
-                                        .targetWeight(req.getTargetWeight())
-                                        .targetCalories(req.getTargetCalories())
-                                        // 아침/점심/저녁 칼로리 정보는 아직 없으므로 NULL로 둡니다.
-                                        .caloriesM(null)
-                                        .caloriesL(null)
-                                        .caloriesD(null)
-                                        .build();
-                        recordRepository.save(recordEntity);
+                        // ⭐ 3. RECORD 테이블에 목표 기록 (고객별 하루 1행: 오늘 RECORD 가 있으면 목표 컬럼만 UPDATE)
+                        // 엔티티로 읽고-저장하면 모든 컬럼을 덮어써 그 사이 식단 저장의 칼로리 증가분이 사라지므로 SQL 로 처리
+                        LocalDate today = LocalDate.now();
+                        if (recordRepository.updateTargets(customer.getIdx(), today, req.getTargetWeight(),
+                                        req.getTargetCalories()) == 0
+                                        && !insertTargetRecord(customer.getIdx(), today, req.getTargetWeight(),
+                                                        req.getTargetCalories())) {
+                                recordRepository.updateTargets(customer.getIdx(), today, req.getTargetWeight(),
+                                                req.getTargetCalories());
+                        }
+                }
+        }
+
+        // 오늘 RECORD 를 목표만 채워 INSERT (아침/점심/저녁 칼로리는 NULL), 식단 저장이 먼저 만들었으면 false
+        // JPA save 대신 JdbcTemplate: 제약 위반이 트랜잭션을 rollback-only 로 만들지 않도록
+        private boolean insertTargetRecord(Long customerIdx, LocalDate recordDate, Double targetWeight,
+                        Integer targetCalories) {
+                try {
+                        jdbcTemplate.update(INSERT_TARGET_RECORD_SQL, customerIdx, recordDate, targetWeight,
+                                        targetCalories);
+                        return true;
+                } catch (DuplicateKeyException e) {
+                        return false;
                 }
         }
 
         // >>> [ADDED] 복구/프로필 등에서 공용으로 쓰는 비밀번호 변경 유틸
-        @Transactional
+        // 해시는 트랜잭션 밖에서 먼저 (호출하는 쪽도 트랜잭션 없이 호출해야 커넥션을 잡지 않음)
         public void updatePassword(String customerId, String newPassword) {
-                CustomersEntity user = customersRepository.findById(customerId)
-                                .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다 : " + customerId));
-                user.setPassword(passwordEncoder.encode(newPassword));
-                customersRepository.save(user);
+                String encodedPassword = passwordEncoder.encode(newPassword);
+                transactionTemplate.executeWithoutResult(status -> {
+                        CustomersEntity user = customersRepository.findById(customerId)
+                                        .orElseThrow(() -> new UsernameNotFoundException(
+                                                        "사용자를 찾을 수 없습니다 : " + customerId));
+                        user.setPassword(encodedPassword);
+                        bumpTokenVersion(user);
+                        customersRepository.save(user);
+                        authUserCache.invalidate(user.getId());
+                        refreshTokenService.revokeAll(user.getIdx());
+                });
         }
 
-        // 체중 히스토리 조회 메소드
-        @Transactional(readOnly = true)
-        public List<BodyEntity> getBodyHistory(String customerId) {
-                // 1단계: 이메일로 CUSTOMERS 엔티티 조회 (idx 얻기)
-                CustomersEntity customer = customersRepository.findById(customerId)
+        // 로그인 성공 시 저장된 해시의 cost 가 설정값(security.password.bcrypt-strength)보다 낮으면
+        // DaoAuthenticationProvider 가 새 cost 로 다시 해시해서 호출 (비밀번호는 그대로라 토큰 버전은 유지)
+        @Override
+        @Transactional
+        public UserDetails updatePassword(UserDetails user, String newEncodedPassword) {
+                CustomersEntity customer = customersRepository.findById(user.getUsername())
                                 .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
+                customer.setPassword(newEncodedPassword);
+                customersRepository.save(customer);
+                log.info("[AUTH] 비밀번호 해시 cost 상향: {}", customer.getId());
+                return new CustomerPrincipal(customer.getId(), newEncodedPassword, user.getAuthorities(),
+                                customer.getIdx(), customer.getTokenVersion() == null ? 0 : customer.getTokenVersion());
+        }
 
-                // 2단계: 얻은 idx로 BODY 테이블 조회
-                return bodyRepository.findByCustomer_IdxOrderByRecordDateDesc(customer.getIdx());
+        // 토큰 버전 + 1 (이전 버전으로 발급된 JWT 전부 무효)
+        private void bumpTokenVersion(CustomersEntity customer) {
+                customer.setTokenVersion((customer.getTokenVersion() == null ? 0 : customer.getTokenVersion()) + 1);
+        }
+
+        // 체중 히스토리 조회 메소드
+        @Transactional(readOnly = true)
+        public List<BodyEntity> getBodyHistory(Long customerIdx) {
+                // 토큰의 idx 로 BODY 테이블 바로 조회
+                return bodyRepository.findByCustomer_IdxOrderByRecordDateDesc(customerIdx);
         }
 
 }
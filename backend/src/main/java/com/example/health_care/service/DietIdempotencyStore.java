@@ -0,0 +1,95 @@
+package com.example.health_care.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 식단 일괄 업로드의 "이미 적용한 키" 저장소 (diet_idempotency 테이블)
+ * - 키는 SHA-256 앞 16바이트로 줄여 고정 길이(32자)로 저장
+ * - (customer_id, key_hash) 유니크 제약이 동시에 같은 키를 두 번 적용하는 것을 막음
+ * - ttl-days 가 지난 키는 매일 삭제
+ */
+@Slf4j
+@Component
+public class DietIdempotencyStore {
+
+    // IN 절 바인드 변수 수 제한 (Oracle 최대 1000)
+    private static final int IN_CHUNK = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO diet_idempotency (customer_id, key_hash, created_at) "
+            + "VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlDays;
+
+    public DietIdempotencyStore(JdbcTemplate jdbcTemplate,
+            @Value("${diet.idempotency.ttl-days:7}") long ttlDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlDays = ttlDays;
+    }
+
+    public String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 이미 적용된 키 해시 조회
+    public Set<String> findSeen(Long customerIdx, Collection<String> keyHashes) {
+        Set<String> seen = new HashSet<>();
+        List<String> all = List.copyOf(keyHashes);
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + IN_CHUNK));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = customerIdx;
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+            seen.addAll(jdbcTemplate.queryForList(
+                    "SELECT key_hash FROM diet_idempotency WHERE customer_id = ? AND key_hash IN (" + placeholders + ")",
+                    String.class, args));
+        }
+        return seen;
+    }
+
+    // 적용한 키 기록 (호출한 쪽 트랜잭션에 참여, JDBC 배치)
+    // 동시에 같은 키가 들어오면 유니크 제약 위반(DuplicateKeyException)으로 트랜잭션 전체가 롤백됨
+    public void remember(Long customerIdx, List<String> keyHashes) {
+        if (keyHashes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, keyHashes.stream()
+                .map(h -> new Object[] { customerIdx, h, now })
+                .toList());
+    }
+
+    @Scheduled(cron = "${diet.idempotency.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(ttlDays));
+        int deleted = jdbcTemplate.update("DELETE FROM diet_idempotency WHERE created_at < ?", cutoff);
+        if (deleted > 0) {
+            log.info("[DIET:IDEMPOTENCY] 만료 키 삭제: {}", deleted);
+        }
+    }
+}
@@ -1,22 +1,34 @@
 package com.example.health_care.service;
 
+import com.example.health_care.dto.DietBatchRequest;
+import com.example.health_care.dto.DietBatchResponse;
+import com.example.health_care.dto.DietDayResponse;
+import com.example.health_care.dto.DietRecordResponse;
+import com.example.health_care.dto.DietRecordRow;
 import com.example.health_care.dto.DietRequest;
-import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.dto.NutritionRollupResponse;
+import com.example.health_care.entity.ChangeLogEntity;
+import com.example.health_care.entity.MealItemEntity;
 import com.example.health_care.entity.RecordEntity;
-import com.example.health_care.repository.CustomersRepository;
+import com.example.health_care.repository.MealItemRepository;
 import com.example.health_care.repository.RecordRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,151 +40,325 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor // 필드 주입
 public class DietService {
 
-    private final CustomersRepository customersRepository;
     private final RecordRepository recordRepository;
+    private final MealItemRepository mealItemRepository;
+    private final NutritionRollupService nutritionRollupService;
+    private final DietIdempotencyStore dietIdempotencyStore;
+    private final ChangeLogService changeLogService;
+    private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // 기간 조회 최대 일수
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private static final String INSERT_RECORD_SQL = "INSERT INTO record "
+            + "(customer_id, record_date, caloriesm, caloriesl, caloriesd) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_MEAL_ITEM_SQL = "INSERT INTO meal_item "
+            + "(record_id, meal_type, food, calories, eaten_at) VALUES (?, ?, ?, ?, ?)";
+
+    // 변경 로그(/api/sync)에 남기는 식사 항목
+    private record MealChange(String date, String type, String food, Long calories, Long timestamp) {}
+
     // 식단 기록 화면에 쓰일 메소드
     @Transactional
-    public void saveDietRecord(String customerId, DietRequest request) {
-        // 이메일로 customers.idx 조회
-        CustomersEntity customers = customersRepository.findById(customerId)
-                .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
-
+    public void saveDietRecord(Long customerIdx, DietRequest request) {
         // 날짜 파싱
-        Date recordDate = parseDate(request.getDate());
+        LocalDate recordDate = parseDate(request.getDate());
 
-        // 해당 날짜의 RECORD 조회 (없으면 생성)
-        RecordEntity record = getOrCreateRecord(customers.getIdx(), recordDate);
+        // 식사 타입에 따라 칼로리 추가 (DB 안에서 원자적으로 증가, 없으면 그날 RECORD 생성)
+        Long recordIdx = addCaloriesToRecord(customerIdx, recordDate, request.getType(), request.getCalories());
 
-        // 식사 타입에 따라 칼로리 추가
-        addCaloriesToRecord(record, request.getType(), request.getCalories());
+        // 상세 항목은 meal_item 에 INSERT 한 번 (timestamp 포함)
+        addMealItem(recordRepository.getReferenceById(recordIdx), request.getType(), request.getFood(),
+                request.getCalories(), request.getTimestamp());
 
-        // 상세 정보를 JSON으로 저장 (timestamp 포함)
-        addMealDetailToRecord(record, request.getType(), request.getFood(), request.getCalories(), request.getTimestamp());
-
-        // 변경사항 db저장
-        recordRepository.save(record);
+        // 일/주/월 집계도 같은 트랜잭션에서 갱신
+        nutritionRollupService.apply(customerIdx, recordDate, request.getType().toLowerCase(),
+                request.getCalories());
+        changeLogService.record(customerIdx, ChangeLogEntity.DIET, ChangeLogEntity.OP_ADD, recordDate,
+                new MealChange(recordDate.toString(), request.getType().toLowerCase(), request.getFood(),
+                        request.getCalories(), request.getTimestamp()));
         log.info("식단 기록 저장 완료 : customerId={}, date={}, type={}, food={}, calories={}",
-                customers.getIdx(), request.getDate(), request.getType(), request.getFood(), request.getCalories());
+                customerIdx, request.getDate(), request.getType(), request.getFood(), request.getCalories());
+    }
+
+    // 오프라인 일괄 업로드 메소드: 요청 순서대로 한 트랜잭션에서 적용
+    // - 항목마다 idempotency key 로 이미 적용된 것은 건너뜀 (재전송해도 중복 기록 없음)
+    // - 칼로리/집계는 날짜별로 합쳐 한 번씩, meal_item 과 키는 JDBC 배치 INSERT
+    @Transactional
+    public DietBatchResponse saveDietBatch(Long customerIdx, DietBatchRequest request) {
+        List<DietBatchRequest.Entry> entries = request.getEntries();
+        DietBatchResponse.Result[] results = new DietBatchResponse.Result[entries.size()];
+        LocalDate[] dates = new LocalDate[entries.size()];
+        String[] keyHashes = new String[entries.size()];
+
+        // 1) 항목 검증 (잘못된 항목만 invalid, 나머지는 계속 진행)
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            DietBatchRequest.Entry entry = entries.get(i);
+            try {
+                if (entry.getIdempotencyKey() == null || entry.getIdempotencyKey().isBlank()
+                        || entry.getIdempotencyKey().length() > 100) {
+                    throw new IllegalArgumentException("idempotencyKey 가 필요합니다. (최대 100자)");
+                }
+                if (entry.getFood() == null || entry.getFood().isBlank()) {
+                    throw new IllegalArgumentException("food 가 필요합니다.");
+                }
+                if (entry.getCalories() == null || entry.getCalories() < 0) {
+                    throw new IllegalArgumentException("calories 는 0 이상이어야 합니다.");
+                }
+                mealSlot(entry.getType());
+                dates[i] = parseDate(entry.getDate());
+                keyHashes[i] = dietIdempotencyStore.hash(entry.getIdempotencyKey());
+                valid.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = new DietBatchResponse.Result(i, entry.getIdempotencyKey(), DietBatchResponse.INVALID,
+                        e.getMessage());
+            }
+        }
+
+        // 2) 이미 적용된 키 + 같은 요청 안에서 반복된 키 제외
+        Set<String> seen = dietIdempotencyStore.findSeen(customerIdx,
+                valid.stream().map(i -> keyHashes[i]).toList());
+        Set<String> batchKeys = new HashSet<>();
+        List<Integer> toApply = new ArrayList<>();
+        for (int i : valid) {
+            if (seen.contains(keyHashes[i]) || !batchKeys.add(keyHashes[i])) {
+                results[i] = new DietBatchResponse.Result(i, entries.get(i).getIdempotencyKey(),
+                        DietBatchResponse.DUPLICATE, null);
+            } else {
+                toApply.add(i);
+            }
+        }
+
+        // 3) 날짜별 칼로리 합 → 날짜당 RECORD UPDATE 한 번 + 집계 갱신 한 번
+        Map<LocalDate, long[]> perDay = new LinkedHashMap<>(); // [아침, 점심, 저녁, 음식 수]
+        for (int i : toApply) {
+            long[] total = perDay.computeIfAbsent(dates[i], d -> new long[4]);
+            total[mealSlot(entries.get(i).getType())] += entries.get(i).getCalories();
+            total[3]++;
+        }
+        Map<LocalDate, Long> recordIdxByDay = new HashMap<>();
+        for (Map.Entry<LocalDate, long[]> day : perDay.entrySet()) {
+            long[] t = day.getValue();
+            recordIdxByDay.put(day.getKey(), addCaloriesToRecord(customerIdx, day.getKey(), t[0], t[1], t[2]));
+            nutritionRollupService.apply(customerIdx, day.getKey(), t[0], t[1], t[2], t[3]);
+        }
+
+        // 4) 식사 항목과 적용한 키를 JDBC 배치로 INSERT (요청 순서 유지)
+        List<Object[]> itemRows = new ArrayList<>();
+        List<String> appliedKeys = new ArrayList<>();
+        List<ChangeLogService.Change> changes = new ArrayList<>();
+        for (int i : toApply) {
+            DietBatchRequest.Entry entry = entries.get(i);
+            long eatenAt = entry.getTimestamp() != null ? entry.getTimestamp() : System.currentTimeMillis();
+            itemRows.add(new Object[] {
+                    recordIdxByDay.get(dates[i]),
+                    entry.getType().toLowerCase(),
+                    entry.getFood(),
+                    entry.getCalories(),
+                    eatenAt });
+            appliedKeys.add(keyHashes[i]);
+            changes.add(new ChangeLogService.Change(ChangeLogEntity.DIET, ChangeLogEntity.OP_ADD,
+                    dates[i].toString(), new MealChange(dates[i].toString(), entry.getType().toLowerCase(),
+                            entry.getFood(), entry.getCalories(), eatenAt)));
+            results[i] = new DietBatchResponse.Result(i, entry.getIdempotencyKey(), DietBatchResponse.APPLIED, null);
+        }
+        if (!itemRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MEAL_ITEM_SQL, itemRows);
+        }
+        dietIdempotencyStore.remember(customerIdx, appliedKeys);
+        changeLogService.record(customerIdx, changes);
+
+        log.info("식단 일괄 저장 완료 : customerId={}, entries={}, applied={}, days={}", customerIdx, entries.size(),
+                toApply.size(), perDay.size());
+        return DietBatchResponse.builder()
+                .applied(toApply.size())
+                .duplicates(valid.size() - toApply.size())
+                .invalid(entries.size() - valid.size())
+                .results(List.of(results))
+                .build();
     }
 
     /**** 메소드 ****/
-    // 날짜 파싱 메소드
-    private Date parseDate(String dateStr) {
+    // 날짜 파싱 메소드 ("2024-01-15" → LocalDate, ISO 포맷터는 공유 상수라 요청마다 생성하지 않음)
+    private LocalDate parseDate(String dateStr) {
         try {
-            // 프론트엔드 형식으로 파싱
-            SimpleDateFormat frontendFormat = new SimpleDateFormat("yyyy-MM-dd");
-            Date date = frontendFormat.parse(dateStr);
-            log.info("1단계 파싱: {} -> {}", dateStr, date);
-
-            // Oracle 형식으로 변환
-            SimpleDateFormat oracleFormat = new SimpleDateFormat("dd/MM/yy");
-            String oracleDateStr = oracleFormat.format(date);
-            log.info("2단계 파싱: {} -> {}", date, oracleDateStr);
-
-            // Oracle 형식으로 다시 파싱
-            Date resullt = oracleFormat.parse(oracleDateStr);
-            log.info("3단계 파싱: {} -> {}", oracleDateStr, resullt);
-            return resullt;
-
-        } catch (ParseException e) {
+            return LocalDate.parse(dateStr);
+        } catch (DateTimeParseException | NullPointerException e) {
             throw new IllegalArgumentException("잘못된 날짜 형식입니다.");
         }
     }
 
-    // 같은 날짜에 여러 번 식단 기록, 기존 RECORD가 있으면 사용/없으면 새로 생성
-    private RecordEntity getOrCreateRecord(Long customerIdx, Date recordDate) {
-        log.info("RECORD 조회 시작: customerIdx={}, recordDate={}", customerIdx, recordDate);
-
-        List<RecordEntity> existingRecords = recordRepository.findByCustomer_IdxAndRecordDate(customerIdx, recordDate);
-        log.info("조회된 RECORD 개수: {}", existingRecords.size());
+    // 칼로리 누적: UPDATE ... SET caloriesX = NVL(caloriesX, 0) + ? 한 번으로 처리
+    // 그날 RECORD 가 없으면 INSERT, 그 사이 다른 요청이 먼저 INSERT 했으면(유니크 제약 위반) 다시 UPDATE
+    private Long addCaloriesToRecord(Long customerIdx, LocalDate recordDate, String mealType, Long calories) {
+        long[] delta = new long[3];
+        delta[mealSlot(mealType)] = calories;
+        return addCaloriesToRecord(customerIdx, recordDate, delta[0], delta[1], delta[2]);
+    }
 
-        if (!existingRecords.isEmpty()) {
-            log.info("기존 RECORD 발견: {}개", existingRecords.size());
-            return existingRecords.get(0);
+    private Long addCaloriesToRecord(Long customerIdx, LocalDate recordDate, long morning, long lunch, long dinner) {
+        int updated = recordRepository.addCalories(customerIdx, recordDate, morning, lunch, dinner);
+        if (updated == 0 && !insertDayRecord(customerIdx, recordDate, morning, lunch, dinner)) {
+            recordRepository.addCalories(customerIdx, recordDate, morning, lunch, dinner);
         }
-
-        log.info("새 RECORD 생성");
-
-        // 없으면 새로 생성
-        log.info("새 RECORD 생성");
-        RecordEntity newRecord = RecordEntity.builder()
-                .customer(CustomersEntity.builder().idx(customerIdx).build())
-                .recordDate(recordDate)
-                .caloriesM(0L)
-                .caloriesL(0L)
-                .caloriesD(0L)
-                .mealDetails("{}") // 빈 JSON 객체
-                .build();
-        return recordRepository.save(newRecord);
+        return recordRepository.findIdxByCustomerIdxAndRecordDate(customerIdx, recordDate)
+                .orElseThrow(() -> new IllegalStateException("RECORD 생성에 실패했습니다."));
     }
 
-    // 상세 정보를 JSON으로 저장
-    private void addCaloriesToRecord(RecordEntity record, String mealType, Long calories) {
-        switch (mealType.toLowerCase()) {
+    // 식사 타입 → 칼로리 배열 위치 (0: 아침, 1: 점심, 2: 저녁)
+    private int mealSlot(String mealType) {
+        switch (mealType == null ? "" : mealType.toLowerCase()) {
             case "morning":
-                record.setCaloriesM((record.getCaloriesM() != null ? record.getCaloriesM() : 0L) + calories);
-                break;
+                return 0;
             case "lunch":
-                record.setCaloriesL((record.getCaloriesL() != null ? record.getCaloriesL() : 0L) + calories);
-                break;
+                return 1;
             case "dinner":
-                record.setCaloriesD((record.getCaloriesD() != null ? record.getCaloriesD() : 0L) + calories);
-                break;
+                return 2;
 
             default:
                 throw new IllegalArgumentException("잘몬된 식사 타입니다: " + mealType);
         }
     }
 
-    // 기존 meal_details JSON 파싱 -> 새 음식 추가 -> JSON으로 저장
-    private void addMealDetailToRecord(RecordEntity record, String mealType, String foodName, Long calories, Long timestamp) {
+    // 그날 RECORD INSERT, 이미 있으면(uk_record_customer_date 위반) false
+    // JPA save 대신 JdbcTemplate 을 쓰는 이유: 제약 위반 예외가 JPA 트랜잭션을 rollback-only 로 만들지 않도록
+    private boolean insertDayRecord(Long customerIdx, LocalDate recordDate, long morning, long lunch, long dinner) {
         try {
-            // 기존 meal_details JSON 파싱
-            Map<String, Object> mealDetails = new HashMap<>();
-            if (record.getMealDetails() != null && !record.getMealDetails().isEmpty()) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> parsedDetails = objectMapper.readValue(record.getMealDetails(), Map.class);
-                mealDetails = parsedDetails;
-            }
-
-            // 해당 식사 타입의 리스트 가져오기 (없으면 생성)
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> mealList = (List<Map<String, Object>>) mealDetails.getOrDefault(mealType,
-                    new java.util.ArrayList<>());
-
-            // 새로운 음식 정보 추가
-            Map<String, Object> foodItem = new HashMap<>();
-            foodItem.put("food", foodName);
-            foodItem.put("calories", calories);
-            foodItem.put("timestamp", timestamp != null ? timestamp : new Date().getTime());
+            jdbcTemplate.update(INSERT_RECORD_SQL, customerIdx, recordDate, morning, lunch, dinner);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.info("RECORD 동시 생성 감지, 기존 행 사용: customerIdx={}, recordDate={}", customerIdx, recordDate);
+            return false;
+        }
+    }
 
-            mealList.add(foodItem);
-            mealDetails.put(mealType, mealList);
+    // 음식 1건을 meal_item 에 추가 (기존 항목은 읽지 않음)
+    private void addMealItem(RecordEntity record, String mealType, String foodName, Long calories, Long timestamp) {
+        mealItemRepository.save(MealItemEntity.builder()
+                .record(record)
+                .mealType(mealType.toLowerCase())
+                .food(foodName)
+                .calories(calories)
+                .eatenAt(timestamp != null ? timestamp : System.currentTimeMillis())
+                .build());
+    }
 
-            // JSON으로 변환해서 저장
-            record.setMealDetails(objectMapper.writeValueAsString(mealDetails));
+    // 식단조회 메소드 (읽기 전용: 아무것도 저장하지 않음)
+    // 프로젝션 조회 1번으로 RECORD 컬럼과 식사 항목을 가져오고, 기록이 없는 날은 0 으로 채움
+    @Transactional(readOnly = true)
+    public DietRecordResponse getDietRecord(String customerId, String date) {
+        LocalDate recordDate = parseDate(date);
+        List<DietRecordRow> rows = recordRepository.findDietRows(customerId, recordDate);
+
+        // {"morning": [{"food", "calories", "timestamp"}, ...], "lunch": [...], "dinner": [...]}
+        Map<String, List<Map<String, Object>>> mealDetails = new LinkedHashMap<>();
+        for (DietRecordRow row : rows) {
+            if (row.mealType() == null) {
+                continue;
+            }
+            Map<String, Object> foodItem = new LinkedHashMap<>();
+            foodItem.put("food", row.food());
+            foodItem.put("calories", row.calories());
+            foodItem.put("timestamp", row.eatenAt());
+            mealDetails.computeIfAbsent(row.mealType(), k -> new ArrayList<>()).add(foodItem);
+        }
 
+        String mealDetailsJson;
+        try {
+            mealDetailsJson = objectMapper.writeValueAsString(mealDetails);
         } catch (JsonProcessingException e) {
             log.error("JSON 처리 중 오류 발생", e);
-            throw new RuntimeException("식단 상세 정보 저장 중 오류가 발생했습니다.");
+            throw new RuntimeException("식단 상세 정보 조회 중 오류가 발생했습니다.");
+        }
+
+        if (rows.isEmpty()) {
+            return DietRecordResponse.builder()
+                    .recordDate(recordDate)
+                    .caloriesM(0L)
+                    .caloriesL(0L)
+                    .caloriesD(0L)
+                    .mealDetails(mealDetailsJson)
+                    .build();
         }
+
+        DietRecordRow first = rows.get(0);
+        return DietRecordResponse.builder()
+                .idx(first.recordIdx())
+                .recordDate(first.recordDate())
+                .caloriesM(nvl(first.caloriesM()))
+                .caloriesL(nvl(first.caloriesL()))
+                .caloriesD(nvl(first.caloriesD()))
+                .mealDetails(mealDetailsJson)
+                .targetWeight(first.targetWeight())
+                .targetCalories(first.targetCalories())
+                .build();
     }
 
-    // 식단조회 메소드
+    // 기간 식단 조회 메소드 (from ~ to, 양 끝 포함)
+    // 하루씩 여러 번 호출하던 것을 조회 1번으로 대체, 기록 없는 날은 빈 값으로 채우고 아무것도 저장하지 않음
     @Transactional(readOnly = true)
-    public RecordEntity getDietRecord(String customerId, String date) {
+    public List<DietDayResponse> getDietRange(Long customerIdx, String from, String to) {
+        LocalDate fromDate = parseDate(from);
+        LocalDate toDate = parseDate(to);
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("to 는 from 보다 빠를 수 없습니다.");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("조회 기간은 최대 " + MAX_RANGE_DAYS + "일입니다.");
+        }
+
+        // 날짜별 빈 값으로 먼저 채움
+        Map<LocalDate, DietDayResponse> days = new LinkedHashMap<>();
+        for (LocalDate d = fromDate; !d.isAfter(toDate); d = d.plusDays(1)) {
+            days.put(d, DietDayResponse.builder()
+                    .date(d.toString())
+                    .caloriesM(0L)
+                    .caloriesL(0L)
+                    .caloriesD(0L)
+                    .totalCalories(0L)
+                    .mealDetails(new LinkedHashMap<>())
+                    .build());
+        }
+
+        List<Object[]> rows = recordRepository.findRangeWithItems(customerIdx, fromDate, toDate);
+        Set<Long> summedRecords = new HashSet<>();
+        for (Object[] row : rows) {
+            RecordEntity record = (RecordEntity) row[0];
+            MealItemEntity item = (MealItemEntity) row[1];
+            DietDayResponse day = days.get(record.getRecordDate());
+            if (day == null) {
+                continue;
+            }
 
-        CustomersEntity customer = customersRepository.findById(customerId)
-                .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
+            // 같은 RECORD 가 항목 수만큼 반복되므로 칼로리는 RECORD 당 한 번만 합산
+            if (summedRecords.add(record.getIdx())) {
+                day.setCaloriesM(day.getCaloriesM() + nvl(record.getCaloriesM()));
+                day.setCaloriesL(day.getCaloriesL() + nvl(record.getCaloriesL()));
+                day.setCaloriesD(day.getCaloriesD() + nvl(record.getCaloriesD()));
+                day.setTotalCalories(day.getCaloriesM() + day.getCaloriesL() + day.getCaloriesD());
+            }
 
-        Date recordDate = parseDate(date);
+            if (item != null) {
+                Map<String, Object> foodItem = new LinkedHashMap<>();
+                foodItem.put("food", item.getFood());
+                foodItem.put("calories", item.getCalories());
+                foodItem.put("timestamp", item.getEatenAt());
+                day.getMealDetails().computeIfAbsent(item.getMealType(), k -> new ArrayList<>()).add(foodItem);
+            }
+        }
+        return new ArrayList<>(days.values());
+    }
 
-        // RECORD 조회만(저장하지 않음)
-        RecordEntity record = getOrCreateRecord(customer.getIdx(), recordDate);
+    // 일/주/월 집계 조회 (원본 RECORD 대신 집계 테이블에서 버킷 수만큼만 읽음)
+    @Transactional(readOnly = true)
+    public List<NutritionRollupResponse> getRollups(Long customerIdx, String period, String from, String to) {
+        return nutritionRollupService.getRollups(customerIdx, period, from, to);
+    }
 
-        return record;
+    private long nvl(Long value) {
+        return value != null ? value : 0L;
     }
 
 }
@@ -3,13 +3,12 @@ package com.example.health_care.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.health_care.dto.FavoriteFoodInfoRequest;
 import com.example.health_care.dto.FavoriteFoodInfoResponse;
-import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.entity.ChangeLogEntity;
 import com.example.health_care.entity.FavoriteFoodInfoEntity;
 import com.example.health_care.repository.CustomersRepository;
 import com.example.health_care.repository.FavoriteFoodInfoRepository;
@@ -24,15 +23,13 @@ public class FavoriteFoodInfoService {
     
     private final CustomersRepository customersRepository;
     private final FavoriteFoodInfoRepository favoriteFoodInfoRepository;
+    private final ChangeLogService changeLogService;
 
     // 즐겨찾기 목록 조회
     @Transactional(readOnly = true)
-    public List<FavoriteFoodInfoResponse> getFavorites(String customerId) {
-        CustomersEntity customer = customersRepository.findById(customerId)
-            .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
-        
+    public List<FavoriteFoodInfoResponse> getFavorites(Long customerIdx) {
          List<FavoriteFoodInfoEntity> entities = favoriteFoodInfoRepository
-        .findByCustomer_IdxOrderByCreatedAtDesc(customer.getIdx());
+        .findByCustomer_IdxOrderByCreatedAtDesc(customerIdx);
     
     return entities.stream()
         .map(this::convertToResponse)
@@ -41,32 +38,32 @@ public class FavoriteFoodInfoService {
 
     // 즐겨찾기 추가
     @Transactional
-    public void addFavorite(String customerId, FavoriteFoodInfoRequest request) {
-        CustomersEntity customer = customersRepository.findById(customerId)
-            .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
-        
+    public void addFavorite(Long customerIdx, FavoriteFoodInfoRequest request) {
         // 중복 체크
         boolean exists = favoriteFoodInfoRepository.existsByCustomer_IdxAndFoodNameAndCalories(
-            customer.getIdx(), request.getFood(), request.getCalories().intValue());
+            customerIdx, request.getFood(), request.getCalories().intValue());
         
         if (exists) {
             throw new IllegalArgumentException("이미 즐겨찾기에 추가된 음식입니다.");
         }
         
         // 50개 제한 체크
-        long count = favoriteFoodInfoRepository.countByCustomer_Idx(customer.getIdx());
+        long count = favoriteFoodInfoRepository.countByCustomer_Idx(customerIdx);
         if (count >= 50) {
             // 가장 오래된 즐겨찾기 삭제
             List<FavoriteFoodInfoEntity> oldestFavorites = favoriteFoodInfoRepository
-                .findByCustomer_IdxOrderByCreatedAtAsc(customer.getIdx());
+                .findByCustomer_IdxOrderByCreatedAtAsc(customerIdx);
             if (!oldestFavorites.isEmpty()) {
-                favoriteFoodInfoRepository.delete(oldestFavorites.get(0));
+                FavoriteFoodInfoEntity oldest = oldestFavorites.get(0);
+                favoriteFoodInfoRepository.delete(oldest);
+                changeLogService.record(customerIdx, ChangeLogEntity.FAVORITE, ChangeLogEntity.OP_DELETE,
+                    oldest.getIdx(), null);
             }
         }
         
-        // 새 즐겨찾기 추가
+        // 새 즐겨찾기 추가 (고객은 idx 참조만, SELECT 없음)
         FavoriteFoodInfoEntity favorite = FavoriteFoodInfoEntity.builder()
-            .customer(customer)
+            .customer(customersRepository.getReferenceById(customerIdx))
             .foodName(request.getFood())
             .calories(request.getCalories().intValue())
             .count(0)
@@ -74,23 +71,24 @@ public class FavoriteFoodInfoService {
             .build();
         
         favoriteFoodInfoRepository.save(favorite);
+        changeLogService.record(customerIdx, ChangeLogEntity.FAVORITE, ChangeLogEntity.OP_ADD,
+            favorite.getIdx(), convertToResponse(favorite));
     }
 
     // 즐겨찾기 삭제
     @Transactional
-    public void removeFavorite(String customerId, Long idx) {
-        CustomersEntity customer = customersRepository.findById(customerId)
-            .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
-        
+    public void removeFavorite(Long customerIdx, Long idx) {
         FavoriteFoodInfoEntity favorite = favoriteFoodInfoRepository.findById(idx)
             .orElseThrow(() -> new IllegalArgumentException("즐겨찾기를 찾을 수 없습니다."));
         
         // 본인 것만 삭제 가능
-        if (!favorite.getCustomer().getIdx().equals(customer.getIdx())) {
+        if (!favorite.getCustomer().getIdx().equals(customerIdx)) {
             throw new IllegalArgumentException("본인의 즐겨찾기만 삭제할 수 있습니다.");
         }
         
         favoriteFoodInfoRepository.delete(favorite);
+        changeLogService.record(customerIdx, ChangeLogEntity.FAVORITE, ChangeLogEntity.OP_DELETE,
+            idx, null);
     }
     
     // Entity를 Response DTO로 변환
@@ -0,0 +1,125 @@
+package com.example.health_care.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.example.health_care.config.GeminiClient;
+import com.example.health_care.dto.GeminiBatchRequest;
+import com.example.health_care.entity.GeminiPrompts;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 장의 음식 사진을 묶어서 분석하는 서비스입니다.
+ * batchSize 장씩 한 번의 generateContent 호출에 담아 프롬프트 중복 비용을 줄이고,
+ * 결과가 빠진 사진만 단일 호출로 다시 분석합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GeminiBatchService {
+
+    private final GeminiService geminiService;
+    private final GeminiClient geminiClient;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * @param images 분석할 이미지 목록
+     * @param singlePrompt 사진 1장 기준 프롬프트 (PREPARED_PROMPT / PACKAGED_PROMPT)
+     * @param userKey 사용량 집계용 사용자 키
+     * @return 이미지 순서대로 모델이 생성한 JSON 텍스트 (끝내 실패한 이미지는 null)
+     */
+    public List<String> analyze(List<GeminiBatchRequest.Image> images, String singlePrompt, String userKey) {
+        GeminiUsageService.Caller caller = new GeminiUsageService.Caller("batch", userKey);
+        long startNanos = System.nanoTime();
+        String[] texts = new String[images.size()];
+        boolean[] batched = new boolean[images.size()]; // 실제 배치 호출에 포함된 이미지
+        long promptTokens = 0;
+        int batchSize = Math.max(1, geminiClient.getBatchSize());
+
+        // 1) batchSize 장씩 묶어서 호출
+        for (int from = 0; from < images.size(); from += batchSize) {
+            List<GeminiBatchRequest.Image> chunk = images.subList(from, Math.min(images.size(), from + batchSize));
+            if (chunk.size() == 1) {
+                continue; // 1장은 아래 단일 호출로 처리
+            }
+            Arrays.fill(batched, from, from + chunk.size(), true);
+            try {
+                String response = geminiService.callGeminiApiBatch(chunk,
+                        GeminiPrompts.batchPrompt(singlePrompt, chunk.size()), caller);
+                JsonNode root = mapper.readTree(response);
+                promptTokens += root.path("usageMetadata").path("promptTokenCount").asLong(0);
+
+                String text = extractJsonObject(root.at("/candidates/0/content/parts/0/text").asText());
+                for (JsonNode result : mapper.readTree(text).path("results")) {
+                    int index = result.path("index").asInt(-1);
+                    if (index < 0 || index >= chunk.size() || !result.isObject() || result.has("error")) {
+                        continue;
+                    }
+                    ObjectNode single = ((ObjectNode) result).deepCopy();
+                    single.remove("index");
+                    texts[from + index] = single.toString();
+                }
+            } catch (Exception e) {
+                log.warn("[GEMINI:BATCH] batch call failed for images {}..{}: {}", from, from + chunk.size() - 1,
+                        e.getMessage());
+            }
+        }
+
+        // 2) 결과가 없는 이미지는 개별 호출로 대체 (fallback 은 배치 호출이 실패했거나 결과가 빠진 경우만)
+        int fallbacks = 0;
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] != null) {
+                continue;
+            }
+            if (batched[i]) {
+                fallbacks++;
+            }
+            GeminiBatchRequest.Image image = images.get(i);
+            try {
+                String response = geminiService.callGeminiApi(image.getImageData(), image.getMimeType(), singlePrompt,
+                        caller);
+                JsonNode root = mapper.readTree(response);
+                promptTokens += root.path("usageMetadata").path("promptTokenCount").asLong(0);
+                texts[i] = root.at("/candidates/0/content/parts/0/text").asText();
+            } catch (Exception e) {
+                log.warn("[GEMINI:BATCH] single fallback failed for image {}: {}", i, e.getMessage());
+            }
+        }
+
+        // 사진 1장당 프롬프트 토큰 / 처리 시간 (배치 효과 확인용)
+        long elapsedNanos = System.nanoTime() - startNanos;
+        DistributionSummary.builder("gemini.batch.prompt_tokens_per_photo")
+                .register(meterRegistry)
+                .record((double) promptTokens / images.size());
+        Timer.builder("gemini.batch.time_per_photo")
+                .register(meterRegistry)
+                .record(elapsedNanos / images.size(), TimeUnit.NANOSECONDS);
+        meterRegistry.counter("gemini.batch.fallbacks").increment(fallbacks);
+        log.info("[GEMINI:BATCH] photos={}, fallbacks={}, promptTokens={}, elapsedMs={}", images.size(), fallbacks,
+                promptTokens, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+
+        return Arrays.asList(texts);
+    }
+
+    // ```json 코드 펜스 등을 제거하고 가장 바깥 JSON 객체만 추출
+    private String extractJsonObject(String text) {
+        int startIndex = text.indexOf('{');
+        int endIndex = text.lastIndexOf('}');
+        if (startIndex != -1 && endIndex > startIndex) {
+            return text.substring(startIndex, endIndex + 1);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.health_care.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.health_care.config.GeminiClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gemini API 키 풀입니다.
+ * 키마다 최근 1분간의 요청 수/토큰 사용량을 슬라이딩 윈도우로 추적하고,
+ * 여유(headroom)가 가장 큰 키를 골라 호출에 사용합니다.
+ * 429 응답을 받은 키는 일정 시간 격리(quarantine)됩니다.
+ */
+@Slf4j
+@Component
+public class GeminiKeyPool {
+
+    private static final long WINDOW_MS = 60_000L;
+
+    private final List<KeySlot> slots;
+    private final int requestsPerMinute;
+    private final long tokensPerMinute;
+    private final long quarantineMs;
+
+    public GeminiKeyPool(GeminiClient geminiClient, MeterRegistry meterRegistry) {
+        this.requestsPerMinute = Math.max(1, geminiClient.getRequestsPerMinute());
+        this.tokensPerMinute = Math.max(1L, geminiClient.getTokensPerMinute());
+        this.quarantineMs = Math.max(1L, geminiClient.getQuarantineSeconds()) * 1000L;
+
+        List<KeySlot> list = new ArrayList<>();
+        List<String> keys = geminiClient.resolveKeys();
+        for (int i = 0; i < keys.size(); i++) {
+            KeySlot slot = new KeySlot(keys.get(i), "key-" + i);
+            registerMetrics(meterRegistry, slot);
+            list.add(slot);
+        }
+        this.slots = Collections.unmodifiableList(list);
+        log.info("[GEMINI] key pool initialized: {} key(s), rpm={}, tpm={}", slots.size(), requestsPerMinute,
+                tokensPerMinute);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * 여유가 가장 큰 키를 선택하고 요청 1건을 미리 기록합니다.
+     * @throws IllegalStateException 사용 가능한 키가 없을 때 (미설정 또는 모두 격리 중)
+     */
+    public KeySlot acquire() {
+        if (slots.isEmpty()) {
+            throw new IllegalStateException("Gemini API 키가 설정되지 않았습니다.");
+        }
+        long now = System.currentTimeMillis();
+        KeySlot best = null;
+        double bestHeadroom = Double.NEGATIVE_INFINITY;
+        for (KeySlot slot : slots) {
+            if (slot.isQuarantined(now)) {
+                continue;
+            }
+            double headroom = slot.headroom(now, requestsPerMinute, tokensPerMinute);
+            if (headroom > bestHeadroom) {
+                bestHeadroom = headroom;
+                best = slot;
+            }
+        }
+        if (best == null) {
+            throw new IllegalStateException("모든 Gemini API 키가 일시적으로 호출 한도를 초과했습니다.");
+        }
+        best.recordRequest(now);
+        best.requests.increment();
+        return best;
+    }
+
+    // 응답의 usageMetadata 로 얻은 토큰 수를 해당 키의 윈도우에 반영
+    public void recordTokens(KeySlot slot, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        slot.recordTokens(System.currentTimeMillis(), tokens);
+        slot.tokens.increment(tokens);
+    }
+
+    // 429 를 받은 키를 격리. retryAfterSeconds 가 0 이하면 기본 격리 시간 사용
+    public void quarantine(KeySlot slot, long retryAfterSeconds) {
+        long duration = retryAfterSeconds > 0 ? retryAfterSeconds * 1000L : quarantineMs;
+        slot.quarantinedUntil = System.currentTimeMillis() + duration;
+        slot.throttled.increment();
+        log.warn("[GEMINI] {} quarantined for {}ms (429)", slot.label, duration);
+    }
+
+    private void registerMetrics(MeterRegistry registry, KeySlot slot) {
+        slot.requests = Counter.builder("gemini.key.requests")
+                .description("Gemini 키별 누적 요청 수")
+                .tag("key", slot.label)
+                .register(registry);
+        slot.tokens = Counter.builder("gemini.key.tokens")
+                .description("Gemini 키별 누적 토큰 사용량")
+                .tag("key", slot.label)
+                .register(registry);
+        slot.throttled = Counter.builder("gemini.key.throttled")
+                .description("Gemini 키별 429 응답 수")
+                .tag("key", slot.label)
+                .register(registry);
+        Gauge.builder("gemini.key.window.requests", slot, s -> s.windowRequests(System.currentTimeMillis()))
+                .description("최근 1분간 요청 수")
+                .tag("key", slot.label)
+                .register(registry);
+        Gauge.builder("gemini.key.window.tokens", slot, s -> s.windowTokens(System.currentTimeMillis()))
+                .description("최근 1분간 토큰 사용량")
+                .tag("key", slot.label)
+                .register(registry);
+        Gauge.builder("gemini.key.quarantined", slot, s -> s.isQuarantined(System.currentTimeMillis()) ? 1 : 0)
+                .description("격리 여부 (1 = 격리 중)")
+                .tag("key", slot.label)
+                .register(registry);
+    }
+
+    // 키 1개의 상태. 윈도우 연산은 키 단위로 동기화
+    public static class KeySlot {
+        private final String key;
+        private final String label;
+        private final Deque<Long> requestTimes = new ArrayDeque<>();
+        private final Deque<long[]> tokenEvents = new ArrayDeque<>(); // {timestamp, tokens}
+        private long tokenSum;
+        private volatile long quarantinedUntil;
+
+        private Counter requests;
+        private Counter tokens;
+        private Counter throttled;
+
+        KeySlot(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        boolean isQuarantined(long now) {
+            return quarantinedUntil > now;
+        }
+
+        synchronized void recordRequest(long now) {
+            evict(now);
+            requestTimes.addLast(now);
+        }
+
+        synchronized void recordTokens(long now, long amount) {
+            evict(now);
+            tokenEvents.addLast(new long[] { now, amount });
+            tokenSum += amount;
+        }
+
+        synchronized int windowRequests(long now) {
+            evict(now);
+            return requestTimes.size();
+        }
+
+        synchronized long windowTokens(long now) {
+            evict(now);
+            return tokenSum;
+        }
+
+        // 요청/토큰 한도 중 더 빡빡한 쪽의 남은 비율 (1.0 = 여유 100%)
+        synchronized double headroom(long now, int rpm, long tpm) {
+            evict(now);
+            double reqRoom = 1.0 - (double) requestTimes.size() / rpm;
+            double tokRoom = 1.0 - (double) tokenSum / tpm;
+            return Math.min(reqRoom, tokRoom);
+        }
+
+        private void evict(long now) {
+            long from = now - WINDOW_MS;
+            while (!requestTimes.isEmpty() && requestTimes.peekFirst() < from) {
+                requestTimes.pollFirst();
+            }
+            while (!tokenEvents.isEmpty() && tokenEvents.peekFirst()[0] < from) {
+                tokenSum -= tokenEvents.pollFirst()[1];
+            }
+        }
+    }
+}
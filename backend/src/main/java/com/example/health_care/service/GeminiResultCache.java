@@ -0,0 +1,68 @@
+package com.example.health_care.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 같은 사진(바이트가 동일한 이미지)을 다시 분석할 때 Gemini 호출 없이 돌려주는 LRU 캐시입니다.
+ * 키는 엔드포인트 + 프롬프트 + 이미지 데이터의 SHA-256 입니다.
+ */
+@Component
+public class GeminiResultCache {
+
+    private final Map<String, String> cache;
+
+    public GeminiResultCache(@Value("${gemini.cache.max-entries:500}") int maxEntries) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // 이미지가 없으면 null (캐시하지 않음)
+    public String key(String endpoint, String prompt, String imageData) {
+        if (imageData == null || imageData.isEmpty()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (prompt != null) {
+                digest.update(prompt.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(imageData.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    public String get(String key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    public void put(String key, String resultJson) {
+        if (key == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, resultJson);
+        }
+    }
+}
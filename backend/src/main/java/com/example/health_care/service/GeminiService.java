@@ -8,9 +8,13 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 
 import com.example.health_care.config.GeminiClient;
+import com.example.health_care.dto.GeminiBatchRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import java.util.Map;
@@ -18,49 +22,248 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Gemini API 호출 로직을 담당하는 서비스 클래스입니다.
- * GeminiClient 클래스를 주입받아 API 키를 사용합니다.
+ * GeminiKeyPool 에서 여유가 가장 큰 API 키를 골라 사용합니다.
  */
+@Slf4j
 @Component
 public class GeminiService {
 
+    /**
+     * 스트리밍 호출 취소 핸들 (SSE 연결이 끊기거나 타임아웃되면 컨트롤러가 cancel)
+     * 읽고 있는 응답 스트림을 닫아 블로킹된 read 도 바로 풀리게 합니다.
+     */
+    public static final class StreamHandle {
+        private volatile boolean cancelled;
+        private volatile Closeable body;
+
+        public void cancel() {
+            cancelled = true;
+            closeQuietly(body);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void attach(Closeable body) {
+            this.body = body;
+            if (cancelled) {
+                closeQuietly(body);
+            }
+        }
+
+        private static void closeQuietly(Closeable body) {
+            if (body == null) {
+                return;
+            }
+            try {
+                body.close();
+            } catch (IOException ignore) {
+                // 이미 닫힘
+            }
+        }
+    }
+
     private final GeminiClient geminiClient;
+    private final GeminiKeyPool geminiKeyPool;
+    private final GeminiUsageService geminiUsageService;
     private final RestTemplate restTemplate;
+    private final ObjectMapper mapper = new ObjectMapper();
 
     @Autowired
-    public GeminiService(GeminiClient geminiClient) {
+    public GeminiService(GeminiClient geminiClient, GeminiKeyPool geminiKeyPool,
+            GeminiUsageService geminiUsageService) {
         this.geminiClient = geminiClient;
+        this.geminiKeyPool = geminiKeyPool;
+        this.geminiUsageService = geminiUsageService;
         this.restTemplate = new RestTemplate();
     }
 
     /**
      * Gemini API를 호출하여 텍스트 및 이미지 데이터를 처리합니다.
+     * 429 응답을 받으면 해당 키를 격리하고 다른 키로 재시도합니다.
      * @param imageData Base64로 인코딩된 이미지 데이터
      * @param mimeType 이미지의 MIME 타입 (예: "image/jpeg")
      * @param prompt Gemini 모델에 전달할 프롬프트
+     * @param caller 사용량 집계용 호출 주체 (엔드포인트/사용자)
      * @return Gemini API의 응답 결과 (JSON 문자열)
      * @throws Exception API 호출 실패 또는 타임아웃 발생 시
      */
-    public String callGeminiApi(String imageData, String mimeType, String prompt) {
-        String apiUrl = geminiClient.getBaseUrl() + "/v1beta/models/gemini-1.5-flash:generateContent?key=" + geminiClient.getKey();
+    public String callGeminiApi(String imageData, String mimeType, String prompt, GeminiUsageService.Caller caller) {
+        return postGenerateContent(buildRequestBody(imageData, mimeType, prompt), caller);
+    }
 
+    /**
+     * 여러 장의 이미지를 한 번의 generateContent 호출로 보냅니다.
+     * 각 이미지 앞에 "[image N]" 텍스트 파트를 붙여 모델이 index 로 결과를 구분하도록 합니다.
+     * @param images 분석할 이미지 목록 (순서 = index)
+     * @param prompt 다중 결과 스키마를 설명하는 프롬프트
+     * @param caller 사용량 집계용 호출 주체 (엔드포인트/사용자)
+     * @return Gemini API의 응답 결과 (JSON 문자열)
+     */
+    public String callGeminiApiBatch(List<GeminiBatchRequest.Image> images, String prompt,
+            GeminiUsageService.Caller caller) {
         List<Map<String, Object>> parts = new ArrayList<>();
+        parts.add(textPart(prompt));
+        for (int i = 0; i < images.size(); i++) {
+            GeminiBatchRequest.Image image = images.get(i);
+            parts.add(textPart("[image " + i + "]"));
+            parts.add(imagePart(image.getImageData(), image.getMimeType()));
+        }
+        return postGenerateContent(wrapParts(parts), caller);
+    }
 
-        Map<String, Object> textPart = new HashMap<>();
-        textPart.put("text", prompt);
-        parts.add(textPart);
+    // generateContent 호출 (키 풀 선택 + 429 재시도)
+    private String postGenerateContent(Map<String, Object> body, GeminiUsageService.Caller caller) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+
+        // 키 개수만큼만 재시도 (모든 키가 429면 마지막 오류를 던짐)
+        int attempts = Math.max(1, geminiKeyPool.size());
+        RuntimeException lastError = null;
+        for (int i = 0; i < attempts; i++) {
+            GeminiKeyPool.KeySlot slot = geminiKeyPool.acquire();
+            String apiUrl = geminiClient.getBaseUrl() + "/v1beta/models/gemini-1.5-flash:generateContent?key=" + slot.getKey();
+            try {
+                ResponseEntity<String> response = restTemplate.postForEntity(apiUrl, entity, String.class);
+
+                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                    recordUsage(slot, caller, extractUsage(response.getBody()));
+                    return response.getBody();
+                }
+                throw new Exception("Failed to get a successful response from Gemini API.");
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                geminiKeyPool.quarantine(slot, retryAfterSeconds(e));
+                lastError = new RuntimeException("Gemini API 호출 한도 초과: " + slot.getLabel(), e);
+            } catch (HttpClientErrorException | HttpServerErrorException e) {
+                System.err.println("Gemini API Error Status: " + e.getStatusCode());
+                System.err.println("Gemini API Error Body: " + e.getResponseBodyAsString());
+                throw new RuntimeException("Gemini API 응답 오류: " + e.getResponseBodyAsString(), e);
+            } catch (ResourceAccessException e) {
+                System.err.println("Network/Connection Error: " + e.getMessage());
+                throw new RuntimeException("네트워크 연결 또는 타임아웃 오류", e);
+            } catch (Exception e) {
+                e.printStackTrace();
+                throw new RuntimeException("Error calling Gemini API: " + e.getMessage(), e);
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * streamGenerateContent(SSE)로 Gemini API를 호출합니다.
+     * 모델이 생성하는 텍스트 조각이 도착할 때마다 onText 로 전달합니다.
+     * @param onText 텍스트 조각 콜백 (호출 스레드에서 순서대로 실행)
+     * @param caller 사용량 집계용 호출 주체 (엔드포인트/사용자)
+     * @param handle 취소 핸들 (취소되면 읽기를 멈추고 CancellationException)
+     * @return 모든 조각을 이어 붙인 전체 텍스트
+     */
+    public String streamGeminiApi(String imageData, String mimeType, String prompt, Consumer<String> onText,
+            GeminiUsageService.Caller caller, StreamHandle handle) {
+        Map<String, Object> body = buildRequestBody(imageData, mimeType, prompt);
+
+        int attempts = Math.max(1, geminiKeyPool.size());
+        RuntimeException lastError = null;
+        for (int i = 0; i < attempts; i++) {
+            if (handle.isCancelled()) {
+                throw new CancellationException("Gemini 스트리밍 취소됨");
+            }
+            GeminiKeyPool.KeySlot slot = geminiKeyPool.acquire();
+            String apiUrl = geminiClient.getBaseUrl()
+                    + "/v1beta/models/gemini-1.5-flash:streamGenerateContent?alt=sse&key=" + slot.getKey();
+            try {
+                StringBuilder fullText = new StringBuilder();
+                JsonNode[] usage = { null };
+                restTemplate.execute(apiUrl, HttpMethod.POST, request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    mapper.writeValue(request.getBody(), body);
+                }, response -> {
+                    handle.attach(response.getBody());
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+                    String line;
+                    while (!handle.isCancelled() && (line = reader.readLine()) != null) {
+                        // SSE 형식: "data: {...}" 한 줄에 청크 1개
+                        if (!line.startsWith("data:")) {
+                            continue;
+                        }
+                        JsonNode chunk = mapper.readTree(line.substring(5).trim());
+                        String fragment = chunk.at("/candidates/0/content/parts/0/text").asText("");
+                        if (!fragment.isEmpty()) {
+                            fullText.append(fragment);
+                            onText.accept(fragment);
+                        }
+                        // usageMetadata 는 누적값이므로 마지막 값을 사용
+                        if (chunk.has("usageMetadata")) {
+                            usage[0] = chunk.get("usageMetadata");
+                        }
+                    }
+                    return null;
+                });
+                recordUsage(slot, caller, usage[0]);
+                if (handle.isCancelled()) {
+                    throw new CancellationException("Gemini 스트리밍 취소됨");
+                }
+                return fullText.toString();
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                geminiKeyPool.quarantine(slot, retryAfterSeconds(e));
+                lastError = new RuntimeException("Gemini API 호출 한도 초과: " + slot.getLabel(), e);
+            } catch (HttpClientErrorException | HttpServerErrorException e) {
+                log.error("[GEMINI:STREAM] API 오류 status={}, body={}", e.getStatusCode(), e.getResponseBodyAsString());
+                throw new RuntimeException("Gemini API 응답 오류: " + e.getResponseBodyAsString(), e);
+            } catch (ResourceAccessException e) {
+                if (handle.isCancelled()) {
+                    // 취소하면서 응답 스트림을 닫아 read 가 실패한 경우
+                    throw new CancellationException("Gemini 스트리밍 취소됨");
+                }
+                log.warn("[GEMINI:STREAM] 네트워크/연결 오류: {}", e.getMessage());
+                throw new RuntimeException("네트워크 연결 또는 타임아웃 오류", e);
+            }
+        }
+        throw lastError;
+    }
+
+    // generateContent / streamGenerateContent 공통 요청 본문
+    private Map<String, Object> buildRequestBody(String imageData, String mimeType, String prompt) {
+        List<Map<String, Object>> parts = new ArrayList<>();
+        parts.add(textPart(prompt));
 
         if (imageData != null && !imageData.isEmpty()) {
-            Map<String, String> inlineData = new HashMap<>();
-            inlineData.put("mimeType", mimeType);
-            inlineData.put("data", imageData);
-            Map<String, Object> imagePart = new HashMap<>();
-            imagePart.put("inlineData", inlineData);
-            parts.add(imagePart);
+            parts.add(imagePart(imageData, mimeType));
         }
+        return wrapParts(parts);
+    }
 
+    private Map<String, Object> textPart(String text) {
+        Map<String, Object> textPart = new HashMap<>();
+        textPart.put("text", text);
+        return textPart;
+    }
+
+    private Map<String, Object> imagePart(String imageData, String mimeType) {
+        Map<String, String> inlineData = new HashMap<>();
+        inlineData.put("mimeType", mimeType);
+        inlineData.put("data", imageData);
+        Map<String, Object> imagePart = new HashMap<>();
+        imagePart.put("inlineData", inlineData);
+        return imagePart;
+    }
+
+    private Map<String, Object> wrapParts(List<Map<String, Object>> parts) {
         Map<String, Object> contents = new HashMap<>();
         contents.put("parts", parts);
 
@@ -72,28 +275,39 @@ public class GeminiService {
             }
         });
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        return body;
+    }
 
+    // 응답의 usageMetadata 추출 (없거나 파싱 실패 시 null)
+    private JsonNode extractUsage(String responseBody) {
         try {
-            ResponseEntity<String> response = restTemplate.postForEntity(apiUrl, entity, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return response.getBody();
-            }
-            throw new Exception("Failed to get a successful response from Gemini API.");
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            System.err.println("Gemini API Error Status: " + e.getStatusCode());
-            System.err.println("Gemini API Error Body: " + e.getResponseBodyAsString());
-            throw new RuntimeException("Gemini API 응답 오류: " + e.getResponseBodyAsString(), e);
-        } catch (ResourceAccessException e) {
-            System.err.println("Network/Connection Error: " + e.getMessage());
-            throw new RuntimeException("네트워크 연결 또는 타임아웃 오류", e);
+            return mapper.readTree(responseBody).get("usageMetadata");
         } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error calling Gemini API: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // 키 풀 윈도우 + 엔드포인트/사용자별 사용량 집계에 반영
+    private void recordUsage(GeminiKeyPool.KeySlot slot, GeminiUsageService.Caller caller, JsonNode usage) {
+        // usageMetadata 가 없어도 호출 횟수는 집계
+        long prompt = usage == null ? 0 : usage.path("promptTokenCount").asLong(0);
+        long candidates = usage == null ? 0 : usage.path("candidatesTokenCount").asLong(0);
+        long total = usage == null ? 0 : usage.path("totalTokenCount").asLong(prompt + candidates);
+        geminiKeyPool.recordTokens(slot, total);
+        geminiUsageService.record(caller, prompt, candidates, total);
+    }
+
+    // Retry-After 헤더(초) 파싱, 없거나 숫자가 아니면 0
+    private long retryAfterSeconds(HttpClientErrorException e) {
+        HttpHeaders responseHeaders = e.getResponseHeaders();
+        String value = responseHeaders == null ? null : responseHeaders.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
         }
     }
-}
\ No newline at end of file
+}
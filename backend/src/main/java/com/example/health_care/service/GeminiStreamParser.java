@@ -0,0 +1,193 @@
+package com.example.health_care.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Gemini 스트리밍 응답(텍스트 조각)을 이어 붙이며 JSON을 점진적으로 파싱합니다.
+ * 관심 있는 경로(예: "dish", "portion", "output.calories")의 값이 완성되는 즉시 반환합니다.
+ * 스트림 1개당 인스턴스 1개를 사용하며 스레드 안전하지 않습니다.
+ */
+public class GeminiStreamParser {
+
+    public record Field(String path, JsonNode value) {}
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Set<String> targets;
+    private final StringBuilder buf = new StringBuilder();
+    private final Deque<Frame> stack = new ArrayDeque<>();
+
+    private boolean started;
+    private boolean finished;
+    private boolean inString;
+    private boolean stringIsKey;
+    private boolean escape;
+    private boolean inPrimitive;
+    private final StringBuilder keyBuf = new StringBuilder();
+
+    // 현재 캡처 중인 값
+    private String capturePath;
+    private int captureStart = -1;
+    private int captureDepth;
+
+    public GeminiStreamParser(Set<String> targets) {
+        this.targets = targets;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 새 텍스트 조각을 입력하고, 이번 조각으로 완성된 관심 필드 목록을 반환합니다.
+     * ```json 같은 코드 펜스는 첫 '{' 이전까지 무시합니다.
+     */
+    public List<Field> feed(String chunk) {
+        List<Field> out = new ArrayList<>();
+        if (chunk == null || finished) {
+            return out;
+        }
+        for (int i = 0; i < chunk.length() && !finished; i++) {
+            char c = chunk.charAt(i);
+            if (!started) {
+                if (c != '{') {
+                    continue;
+                }
+                started = true;
+            }
+            buf.append(c);
+            int pos = buf.length() - 1;
+
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                    if (stringIsKey) keyBuf.append(c);
+                } else if (c == '\\') {
+                    escape = true;
+                    if (stringIsKey) keyBuf.append(c);
+                } else if (c == '"') {
+                    inString = false;
+                    if (stringIsKey) {
+                        stack.peek().key = keyBuf.toString();
+                    } else {
+                        valueEnd(pos, out);
+                    }
+                } else if (stringIsKey) {
+                    keyBuf.append(c);
+                }
+                continue;
+            }
+
+            if (inPrimitive) {
+                if (Character.isWhitespace(c) || c == ',' || c == '}' || c == ']') {
+                    inPrimitive = false;
+                    valueEnd(pos - 1, out);
+                } else {
+                    continue;
+                }
+            }
+
+            switch (c) {
+                case '"' -> {
+                    Frame top = stack.peek();
+                    if (top != null && top.object && top.expectKey) {
+                        stringIsKey = true;
+                        keyBuf.setLength(0);
+                    } else {
+                        stringIsKey = false;
+                        valueStart(pos);
+                    }
+                    inString = true;
+                }
+                case ':' -> {
+                    if (!stack.isEmpty()) stack.peek().expectKey = false;
+                }
+                case ',' -> {
+                    Frame top = stack.peek();
+                    if (top != null && top.object) {
+                        top.expectKey = true;
+                        top.key = null;
+                    }
+                }
+                case '{', '[' -> {
+                    valueStart(pos);
+                    stack.push(new Frame(c == '{'));
+                }
+                case '}', ']' -> {
+                    stack.poll();
+                    valueEnd(pos, out);
+                    if (stack.isEmpty()) {
+                        finished = true;
+                    }
+                }
+                default -> {
+                    if (!Character.isWhitespace(c)) {
+                        valueStart(pos);
+                        inPrimitive = true;
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    private void valueStart(int pos) {
+        if (captureStart >= 0) {
+            return;
+        }
+        String path = currentPath();
+        if (targets.contains(path)) {
+            capturePath = path;
+            captureStart = pos;
+            captureDepth = stack.size();
+        }
+    }
+
+    private void valueEnd(int endInclusive, List<Field> out) {
+        if (captureStart < 0 || stack.size() != captureDepth) {
+            return;
+        }
+        String raw = buf.substring(captureStart, endInclusive + 1);
+        try {
+            out.add(new Field(capturePath, MAPPER.readTree(raw)));
+        } catch (Exception ignore) {
+            // 모델이 JSON 문법을 어긴 경우 부분 필드는 건너뛰고 최종 결과에서 처리
+        }
+        captureStart = -1;
+        capturePath = null;
+    }
+
+    // 스택의 객체 키를 이어 붙인 현재 값의 경로 (배열은 "[]")
+    private String currentPath() {
+        StringBuilder sb = new StringBuilder();
+        var it = stack.descendingIterator();
+        while (it.hasNext()) {
+            Frame f = it.next();
+            String part = f.object ? f.key : "[]";
+            if (part == null) {
+                continue;
+            }
+            if (sb.length() > 0) sb.append('.');
+            sb.append(part);
+        }
+        return sb.toString();
+    }
+
+    private static class Frame {
+        private final boolean object;
+        private boolean expectKey;
+        private String key;
+
+        Frame(boolean object) {
+            this.object = object;
+            this.expectKey = object;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.health_care.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gemini 토큰 사용량 집계 서비스입니다.
+ * - 호출마다 usageMetadata(prompt/candidates/total)를 LongAdder 로 메모리에 누적 (락 없음)
+ * - 주기적으로 gemini_usage 테이블에 배치 INSERT (flush)
+ * - 엔드포인트별 값은 actuator 메트릭(gemini.usage.*)으로도 노출
+ * - 사용자별 일일 토큰 한도(soft limit) 초과 여부를 판단
+ */
+@Slf4j
+@Service
+public class GeminiUsageService {
+
+    // 호출 주체 (엔드포인트 + 사용자 키)
+    public record Caller(String endpoint, String userKey) {}
+
+    private record UsageKey(LocalDate date, String userKey, String endpoint) {}
+
+    private static class Usage {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder candidatesTokens = new LongAdder();
+        private final LongAdder totalTokens = new LongAdder();
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO gemini_usage "
+            + "(usage_date, user_key, endpoint, calls, prompt_tokens, candidates_tokens, total_tokens, flushed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long dailyTokenLimit;
+
+    // 아직 DB에 기록하지 않은 증분
+    private final Map<UsageKey, Usage> pending = new ConcurrentHashMap<>();
+    // 오늘 사용자별 누적 토큰 (soft limit 판단용)
+    private final Map<String, LongAdder> todayTotals = new ConcurrentHashMap<>();
+    private volatile LocalDate today = LocalDate.now();
+
+    private final Map<String, Counter> meterCache = new ConcurrentHashMap<>();
+
+    public GeminiUsageService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${gemini.usage.daily-token-limit:200000}") long dailyTokenLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.dailyTokenLimit = dailyTokenLimit;
+    }
+
+    // 재시작 시 오늘 사용량을 DB에서 복원 (soft limit 이 재시작으로 풀리지 않도록)
+    @PostConstruct
+    public void loadToday() {
+        try {
+            jdbcTemplate.query(
+                    "SELECT user_key, SUM(total_tokens) FROM gemini_usage WHERE usage_date = ? GROUP BY user_key",
+                    (RowCallbackHandler) rs -> todayTotals
+                            .computeIfAbsent(rs.getString(1), k -> new LongAdder()).add(rs.getLong(2)),
+                    Date.valueOf(today));
+        } catch (Exception e) {
+            log.warn("[GEMINI:USAGE] 오늘 사용량 복원 실패: {}", e.getMessage());
+        }
+    }
+
+    public void record(Caller caller, long promptTokens, long candidatesTokens, long totalTokens) {
+        if (caller == null) {
+            return;
+        }
+        LocalDate date = rollDay();
+        Usage usage = pending.computeIfAbsent(new UsageKey(date, caller.userKey(), caller.endpoint()),
+                k -> new Usage());
+        usage.calls.increment();
+        usage.promptTokens.add(promptTokens);
+        usage.candidatesTokens.add(candidatesTokens);
+        usage.totalTokens.add(totalTokens);
+        todayTotals.computeIfAbsent(caller.userKey(), k -> new LongAdder()).add(totalTokens);
+
+        counter("gemini.usage.calls", caller.endpoint(), null).increment();
+        counter("gemini.usage.tokens", caller.endpoint(), "prompt").increment(promptTokens);
+        counter("gemini.usage.tokens", caller.endpoint(), "candidates").increment(candidatesTokens);
+        counter("gemini.usage.tokens", caller.endpoint(), "total").increment(totalTokens);
+    }
+
+    // 오늘 사용량이 일일 한도를 넘었는지 (0 이하로 설정하면 한도 없음)
+    public boolean isOverDailyLimit(String userKey) {
+        if (dailyTokenLimit <= 0) {
+            return false;
+        }
+        rollDay();
+        LongAdder used = todayTotals.get(userKey);
+        return used != null && used.sum() >= dailyTokenLimit;
+    }
+
+    // 한도 초과로 Gemini 대신 캐시/OCR 경로로 대체한 횟수
+    public void recordDegraded(String endpoint, String fallback) {
+        meterRegistry.counter("gemini.usage.degraded", "endpoint", endpoint, "fallback", fallback).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${gemini.usage.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDate current = rollDay();
+        List<Object[]> rows = new ArrayList<>();
+        List<UsageKey> keys = new ArrayList<>();
+        List<long[]> values = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (Map.Entry<UsageKey, Usage> entry : pending.entrySet()) {
+            UsageKey key = entry.getKey();
+            Usage usage = entry.getValue();
+            // sumThenReset 은 셀 단위 getAndSet 이라 동시 증가분은 이번 또는 다음 flush 에 포함됨
+            long[] v = {
+                    usage.calls.sumThenReset(),
+                    usage.promptTokens.sumThenReset(),
+                    usage.candidatesTokens.sumThenReset(),
+                    usage.totalTokens.sumThenReset() };
+            if (!key.date().equals(current)) {
+                pending.remove(key, usage); // 지난 날짜 키는 정리
+            }
+            if (v[0] == 0 && v[3] == 0) {
+                continue;
+            }
+            keys.add(key);
+            values.add(v);
+            rows.add(new Object[] { Date.valueOf(key.date()), key.userKey(), key.endpoint(), v[0], v[1], v[2], v[3], now });
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            log.debug("[GEMINI:USAGE] flushed {} row(s)", rows.size());
+        } catch (Exception e) {
+            // 실패한 증분은 다시 메모리에 되돌려 다음 flush 에서 재시도
+            log.warn("[GEMINI:USAGE] flush 실패, 다음 주기에 재시도: {}", e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                Usage usage = pending.computeIfAbsent(keys.get(i), k -> new Usage());
+                long[] v = values.get(i);
+                usage.calls.add(v[0]);
+                usage.promptTokens.add(v[1]);
+                usage.candidatesTokens.add(v[2]);
+                usage.totalTokens.add(v[3]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // 날짜가 바뀌면 오늘 누적값 초기화
+    private LocalDate rollDay() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            synchronized (this) {
+                if (!now.equals(today)) {
+                    todayTotals.clear();
+                    today = now;
+                }
+            }
+        }
+        return now;
+    }
+
+    private Counter counter(String name, String endpoint, String type) {
+        String cacheKey = name + '|' + endpoint + '|' + type;
+        return meterCache.computeIfAbsent(cacheKey, k -> {
+            Counter.Builder builder = Counter.builder(name).tag("endpoint", endpoint);
+            if (type != null) {
+                builder.tag("type", type);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+}
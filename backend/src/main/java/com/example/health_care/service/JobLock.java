@@ -0,0 +1,54 @@
+package com.example.health_care.service;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * job_lock 테이블 기반 예약 작업 잠금 (임대 방식)
+ * - tryLock: 잠금이 비었거나 임대 시간이 지났으면 lease 만큼 잡음 (UPDATE/INSERT 한 문장씩, 자동 커밋)
+ * - unlock: 내가 잡은 잠금만 즉시 해제
+ * 작업 시간이 lease 를 넘으면 다른 서버가 잡을 수 있으므로 lease 는 넉넉하게 잡습니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobLock {
+
+    // 서버 식별 (pid@host)
+    private static final String OWNER = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean tryLock(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp until = Timestamp.valueOf(now.plus(lease));
+        int updated = jdbcTemplate.update(
+                "UPDATE job_lock SET locked_until = ?, locked_by = ? WHERE name = ? AND locked_until <= ?",
+                until, OWNER, name, Timestamp.valueOf(now));
+        if (updated > 0) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO job_lock (name, locked_until, locked_by) VALUES (?, ?, ?)",
+                    name, until, OWNER);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("[JOB-LOCK] {} 다른 서버가 실행 중", name);
+            return false;
+        }
+    }
+
+    public void unlock(String name) {
+        jdbcTemplate.update("UPDATE job_lock SET locked_until = ? WHERE name = ? AND locked_by = ?",
+                Timestamp.valueOf(LocalDateTime.now()), name, OWNER);
+    }
+}
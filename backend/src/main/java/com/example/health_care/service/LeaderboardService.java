@@ -0,0 +1,275 @@
+package com.example.health_care.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.health_care.dto.LeaderboardAroundResponse;
+import com.example.health_care.dto.LeaderboardEntryDTO;
+import com.example.health_care.entity.ChangeLogEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 서버 메모리 리더보드입니다.
+ * - 점수 기준은 leaderboard.score 로 선택 (progress: 목표 체중 달성률 %, streak: 연속 기록 일수)
+ * - 고객을 (점수 내림차순, idx 오름차순)으로 RankTree 에 유지 → 상위 N / 내 순위 / 이웃 조회가 O(log n)
+ * - 식단/신체/목표/프로필 변경이 커밋되면 그 고객 점수만 다시 계산해서 갱신
+ * - 기동 시와 매일 새벽(연속 기록 끊김 반영) Oracle 에서 전체 재구축
+ */
+@Slf4j
+@Service
+public class LeaderboardService {
+
+    public static final String PROGRESS = "progress";
+    public static final String STREAK = "streak";
+
+    private record Entry(Long customerIdx, String id, double score) {}
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::customerIdx);
+
+    private static final int MAX_TOP = 100;
+    private static final int MAX_AROUND = 50;
+
+    // 시작 체중(첫 BODY) → 현재 체중(customers) → 목표 체중(최신 BODY 목표) 기준 달성률
+    private static final String PROGRESS_SQL = "SELECT c.idx, c.id, c.weight, fb.weight, lb.target_weight "
+            + "FROM customers c "
+            + "LEFT JOIN (SELECT customer_id, weight, "
+            + "ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY idx) AS rn "
+            + "FROM body WHERE weight IS NOT NULL%1$s) fb ON fb.customer_id = c.idx AND fb.rn = 1 "
+            + "LEFT JOIN (SELECT customer_id, target_weight, "
+            + "ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY idx DESC) AS rn "
+            + "FROM body WHERE target_weight IS NOT NULL%1$s) lb ON lb.customer_id = c.idx AND lb.rn = 1%2$s";
+
+    // 칼로리가 기록된 날의 연속 구간(날짜 - 행번호가 같은 묶음) 중 오늘 또는 어제로 끝나는 구간 길이
+    private static final String STREAK_SQL = "SELECT c.idx, c.id, NVL(s.streak, 0) "
+            + "FROM customers c "
+            + "LEFT JOIN (SELECT customer_id, COUNT(*) AS streak FROM ("
+            + "SELECT customer_id, record_date, "
+            + "record_date - ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY record_date) AS grp "
+            + "FROM record WHERE NVL(caloriesm, 0) + NVL(caloriesl, 0) + NVL(caloriesd, 0) > 0 "
+            + "AND record_date <= ?%1$s) "
+            + "GROUP BY customer_id, grp HAVING MAX(record_date) >= ?) s ON s.customer_id = c.idx%2$s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String scoreType;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private RankTree<Entry> tree = new RankTree<>(ORDER);
+    private Map<Long, Entry> byCustomer = new HashMap<>();
+
+    // 재구축 중에 바뀐 고객 (새 트리로 교체한 뒤 다시 반영)
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public LeaderboardService(JdbcTemplate jdbcTemplate,
+            @Value("${leaderboard.score:progress}") String scoreType) {
+        if (!PROGRESS.equals(scoreType) && !STREAK.equals(scoreType)) {
+            throw new IllegalArgumentException("leaderboard.score 는 progress 또는 streak 이어야 합니다: " + scoreType);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.scoreType = scoreType;
+    }
+
+    // 상위 n 명
+    public List<LeaderboardEntryDTO> getTop(int n) {
+        lock.readLock().lock();
+        try {
+            return toDtos(0, tree.slice(0, Math.max(1, Math.min(n, MAX_TOP))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 내 순위와 앞뒤 around 명
+    public LeaderboardAroundResponse getAround(Long customerIdx, int around) {
+        if (!isRanked(customerIdx)) {
+            refresh(customerIdx); // 가입 후 아직 변경이 없어 트리에 없는 경우
+        }
+        int size = Math.max(0, Math.min(around, MAX_AROUND));
+
+        lock.readLock().lock();
+        try {
+            Entry mine = byCustomer.get(customerIdx);
+            if (mine == null) {
+                throw new IllegalStateException("리더보드에 없는 사용자입니다.");
+            }
+            int rank = tree.rank(mine);
+            int from = Math.max(0, rank - size);
+            return LeaderboardAroundResponse.builder()
+                    .scoreType(scoreType)
+                    .total(tree.size())
+                    .me(toDto(rank, mine))
+                    .neighbors(toDtos(from, tree.slice(from, rank - from + size + 1)))
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getScoreType() {
+        return scoreType;
+    }
+
+    // 변경이 커밋된 뒤 해당 고객 점수만 다시 계산
+    @TransactionalEventListener
+    public void onCustomerDataChanged(CustomerDataChangedEvent event) {
+        boolean relevant = STREAK.equals(scoreType)
+                ? event.entities().contains(ChangeLogEntity.DIET)
+                : event.entities().contains(ChangeLogEntity.BODY) || event.entities().contains(ChangeLogEntity.GOAL)
+                        || event.entities().contains(ChangeLogEntity.PROFILE);
+        if (!relevant) {
+            return;
+        }
+        try {
+            refresh(event.customerIdx());
+        } catch (Exception e) {
+            // 다음 재구축 때 맞춰지므로 요청은 실패시키지 않음
+            log.warn("[LEADERBOARD] 점수 갱신 실패: customerIdx={}, {}", event.customerIdx(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // 전체 재구축: 새 트리를 잠금 없이 만든 뒤 통째로 교체
+    @Scheduled(cron = "${leaderboard.rebuild-cron:0 5 0 * * *}")
+    public void rebuild() {
+        changedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            long started = System.currentTimeMillis();
+            RankTree<Entry> newTree = new RankTree<>(ORDER);
+            Map<Long, Entry> newByCustomer = new HashMap<>();
+            for (Entry entry : loadScores(null)) {
+                newTree.add(entry);
+                newByCustomer.put(entry.customerIdx(), entry);
+            }
+
+            lock.writeLock().lock();
+            try {
+                tree = newTree;
+                byCustomer = newByCustomer;
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (Long customerIdx : changedDuringRebuild) {
+                refresh(customerIdx);
+            }
+            changedDuringRebuild.clear();
+            log.info("[LEADERBOARD] 재구축 완료: score={}, customers={}, elapsedMs={}", scoreType, newTree.size(),
+                    System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("[LEADERBOARD] 재구축 실패: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /**** 메소드 ****/
+    // 고객 한 명의 점수를 다시 읽어 트리에서 빼고 다시 넣음 (고객이 없어졌으면 제거만)
+    private void refresh(Long customerIdx) {
+        if (rebuilding) {
+            changedDuringRebuild.add(customerIdx);
+        }
+        List<Entry> loaded = loadScores(customerIdx);
+
+        lock.writeLock().lock();
+        try {
+            Entry old = byCustomer.remove(customerIdx);
+            if (old != null) {
+                tree.remove(old);
+            }
+            if (!loaded.isEmpty()) {
+                Entry entry = loaded.get(0);
+                tree.add(entry);
+                byCustomer.put(customerIdx, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isRanked(Long customerIdx) {
+        lock.readLock().lock();
+        try {
+            return byCustomer.containsKey(customerIdx);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // customerIdx 가 null 이면 전체 고객
+    private List<Entry> loadScores(Long customerIdx) {
+        boolean single = customerIdx != null;
+        String inner = single ? " AND customer_id = ?" : "";
+        String outer = single ? " WHERE c.idx = ?" : "";
+
+        if (PROGRESS.equals(scoreType)) {
+            Object[] args = single ? new Object[] { customerIdx, customerIdx, customerIdx } : new Object[0];
+            return jdbcTemplate.query(String.format(PROGRESS_SQL, inner, outer),
+                    (rs, rowNum) -> new Entry(rs.getLong(1), rs.getString(2),
+                            progress(rs.getObject(4, Double.class), rs.getObject(3, Double.class),
+                                    rs.getObject(5, Double.class))),
+                    args);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Object> args = new ArrayList<>();
+        args.add(Date.valueOf(today));
+        if (single) {
+            args.add(customerIdx);
+        }
+        args.add(Date.valueOf(today.minusDays(1)));
+        if (single) {
+            args.add(customerIdx);
+        }
+        return jdbcTemplate.query(String.format(STREAK_SQL, inner, outer),
+                (rs, rowNum) -> new Entry(rs.getLong(1), rs.getString(2), rs.getLong(3)),
+                args.toArray());
+    }
+
+    // 목표 체중 달성률 (0 ~ 100, 소수 첫째 자리)
+    private double progress(Double start, Double current, Double target) {
+        if (start == null || current == null || target == null || start.equals(target)) {
+            return 0;
+        }
+        double ratio = (start - current) / (start - target);
+        return Math.round(Math.max(0, Math.min(1, ratio)) * 1000) / 10.0;
+    }
+
+    private List<LeaderboardEntryDTO> toDtos(int fromRank, List<Entry> entries) {
+        List<LeaderboardEntryDTO> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(toDto(fromRank + i, entries.get(i)));
+        }
+        return result;
+    }
+
+    private LeaderboardEntryDTO toDto(int rank, Entry entry) {
+        return LeaderboardEntryDTO.builder()
+                .rank(rank + 1)
+                .id(entry.id())
+                .score(entry.score())
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.health_care.service;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RECORD.meal_details(JSON CLOB) → meal_item 테이블 1회성 이전 작업입니다.
+ * 기동 시 meal_details 가 남아 있는 RECORD 만 골라 항목을 INSERT 하고 meal_details 를 NULL 로 비웁니다.
+ * JSON 의 모든 항목을 옮길 수 있을 때만 비우고, 모르는 키/형식이 하나라도 있으면 원본을 그대로 두고 실패로 셉니다.
+ * 예전 저장 코드는 요청의 type 을 그대로 키로 썼으므로 식사 키는 대소문자 구분 없이 읽고 소문자로 저장합니다.
+ * 끝나면 아직 meal_details 가 남은 RECORD 수와 실패한 RECORD 번호(일부)를 남깁니다.
+ * RECORD 단위 트랜잭션이라 중간에 중단돼도 다음 기동 때 남은 것부터 이어서 처리합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MealItemMigration {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_LOGGED_FAILURES = 20;
+    private static final List<String> MEAL_TYPES = List.of("morning", "lunch", "dinner");
+    private static final List<String> ITEM_FIELDS = List.of("food", "calories", "timestamp");
+
+    private static final String SELECT_SQL = "SELECT idx, meal_details FROM record "
+            + "WHERE meal_details IS NOT NULL AND idx > ? ORDER BY idx FETCH FIRST " + PAGE_SIZE + " ROWS ONLY";
+    private static final String INSERT_SQL = "INSERT INTO meal_item (record_id, meal_type, food, calories, eaten_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = { Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT };
+    private static final String CLEAR_SQL = "UPDATE record SET meal_details = NULL WHERE idx = ?";
+    private static final String REMAINING_SQL = "SELECT COUNT(*) FROM record WHERE meal_details IS NOT NULL";
+
+    private record LegacyRecord(long idx, String mealDetails) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long lastIdx = 0;
+        int migrated = 0;
+        int failed = 0;
+        List<Long> failedIdx = new ArrayList<>();
+        try {
+            while (true) {
+                List<LegacyRecord> page = jdbcTemplate.query(SELECT_SQL,
+                        (rs, rowNum) -> new LegacyRecord(rs.getLong(1), rs.getString(2)), lastIdx);
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (LegacyRecord legacy : page) {
+                    lastIdx = legacy.idx();
+                    try {
+                        migrateRecord(legacy);
+                        migrated++;
+                    } catch (Exception e) {
+                        // 깨진 JSON 등은 원본을 그대로 두고 건너뜀
+                        failed++;
+                        if (failedIdx.size() < MAX_LOGGED_FAILURES) {
+                            failedIdx.add(legacy.idx());
+                        }
+                        log.warn("[MEAL_ITEM] RECORD {} 이전 실패: {}", legacy.idx(), e.getMessage());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[MEAL_ITEM] meal_details 이전 중단: {}", e.getMessage());
+        }
+        if (migrated > 0 || failed > 0) {
+            log.info("[MEAL_ITEM] meal_details 이전 완료: records={}, failed={}", migrated, failed);
+        }
+        try {
+            Long remaining = jdbcTemplate.queryForObject(REMAINING_SQL, Long.class);
+            if (remaining != null && remaining > 0) {
+                log.warn("[MEAL_ITEM] 이전되지 않은 meal_details 남음: records={}, failedIdx={}{}", remaining, failedIdx,
+                        failed > failedIdx.size() ? " ..." : "");
+            }
+        } catch (Exception e) {
+            log.warn("[MEAL_ITEM] 남은 meal_details 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    private void migrateRecord(LegacyRecord legacy) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        if (!legacy.mealDetails().isBlank()) {
+            JsonNode details = objectMapper.readTree(legacy.mealDetails());
+            if (!details.isObject()) {
+                throw new IllegalStateException("meal_details 가 객체가 아님");
+            }
+            var fields = details.fields();
+            while (fields.hasNext()) {
+                var field = fields.next();
+                // "Morning", "LUNCH" 처럼 저장된 키도 같은 식사로 보고 소문자로 정규화
+                String mealType = field.getKey().trim().toLowerCase(Locale.ROOT);
+                if (!MEAL_TYPES.contains(mealType)) {
+                    throw new IllegalStateException("알 수 없는 키: " + field.getKey());
+                }
+                JsonNode items = field.getValue();
+                if (items.isNull()) {
+                    continue;
+                }
+                if (!items.isArray()) {
+                    throw new IllegalStateException(mealType + " 가 배열이 아님");
+                }
+                for (JsonNode item : items) {
+                    rows.add(toRow(legacy.idx(), mealType, item));
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+            }
+            jdbcTemplate.update(CLEAR_SQL, legacy.idx());
+        });
+    }
+
+    // 항목 1개 → meal_item 행 (옮기면 값이 바뀌거나 사라지는 항목은 예외)
+    private static Object[] toRow(long recordIdx, String mealType, JsonNode item) {
+        if (!item.isObject()) {
+            throw new IllegalStateException(mealType + " 항목이 객체가 아님");
+        }
+        item.fieldNames().forEachRemaining(name -> {
+            if (!ITEM_FIELDS.contains(name)) {
+                throw new IllegalStateException(mealType + " 항목의 알 수 없는 키: " + name);
+            }
+        });
+        JsonNode food = item.path("food");
+        if (!food.isMissingNode() && !food.isNull() && !food.isTextual()) {
+            throw new IllegalStateException(mealType + " food 형식 오류");
+        }
+        Long calories = toLong(item.path("calories"), mealType + " calories");
+        return new Object[] {
+                recordIdx,
+                mealType,
+                food.isTextual() ? food.asText() : null,
+                calories != null ? calories : 0L,
+                toLong(item.path("timestamp"), mealType + " timestamp") };
+    }
+
+    private static Long toLong(JsonNode node, String what) {
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        if (node.isNumber()) {
+            return node.asLong();
+        }
+        if (node.isTextual()) {
+            try {
+                return Long.parseLong(node.asText().trim());
+            } catch (NumberFormatException e) {
+                // 아래에서 실패 처리
+            }
+        }
+        throw new IllegalStateException(what + " 형식 오류: " + node);
+    }
+}
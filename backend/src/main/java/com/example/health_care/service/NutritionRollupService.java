@@ -0,0 +1,284 @@
+package com.example.health_care.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.health_care.dto.NutritionRollupResponse;
+import com.example.health_care.entity.GoalEntity;
+import com.example.health_care.entity.NutritionRollupEntity;
+import com.example.health_care.repository.GoalRepository;
+import com.example.health_care.repository.NutritionRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 일/주(ISO)/월 영양 집계(nutrition_rollup) 관리 서비스입니다.
+ * - apply(): 식단 저장 트랜잭션 안에서 세 버킷을 UPDATE ... + ? 로 증분 갱신 (없으면 INSERT)
+ * - backfill(): 기존 RECORD/meal_item 으로 집계 테이블 전체를 다시 계산 (job_lock 으로 한 서버만, 한 트랜잭션)
+ * - getRollups(): 기간 조회 시 버킷 수만큼의 행만 읽음
+ */
+@Slf4j
+@Service
+public class NutritionRollupService {
+
+    // 기간 조회 시 최대 버킷 수
+    private static final int MAX_BUCKETS = 400;
+
+    private static final String BACKFILL_LOCK = "rollup-backfill";
+    private static final Duration BACKFILL_LEASE = Duration.ofMinutes(30);
+
+    private static final String UPDATE_SQL = "UPDATE nutrition_rollup SET "
+            + "calories_m = calories_m + ?, calories_l = calories_l + ?, calories_d = calories_d + ?, "
+            + "item_count = item_count + ?, day_count = day_count + ?, target_total = target_total + ?, updated_at = ? "
+            + "WHERE customer_id = ? AND period_type = ? AND period_start = ?";
+    private static final String INSERT_SQL = "INSERT INTO nutrition_rollup "
+            + "(customer_id, period_type, period_start, calories_m, calories_l, calories_d, item_count, day_count, "
+            + "target_total, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 하루 단위 원본(RECORD 합 + 음식 개수)을 만든 뒤 일/주/월로 묶어 INSERT (%1$s = 집계 단위, %2$s = TRUNC 포맷)
+    // 목표 칼로리는 과거 이력이 없으므로 고객의 최신 목표로 채움
+    private static final String BACKFILL_SQL = "INSERT INTO nutrition_rollup "
+            + "(customer_id, period_type, period_start, calories_m, calories_l, calories_d, item_count, day_count, "
+            + "target_total, updated_at) "
+            + "WITH days AS ("
+            + "  SELECT r.customer_id, TRUNC(r.record_date) AS d, "
+            + "         SUM(NVL(r.caloriesm, 0)) AS m, SUM(NVL(r.caloriesl, 0)) AS l, SUM(NVL(r.caloriesd, 0)) AS dn, "
+            + "         SUM(NVL(mi.cnt, 0)) AS cnt "
+            + "    FROM record r "
+            + "    LEFT JOIN (SELECT record_id, COUNT(*) AS cnt FROM meal_item GROUP BY record_id) mi "
+            + "      ON mi.record_id = r.idx "
+            + "   GROUP BY r.customer_id, TRUNC(r.record_date)"
+            + "), targets AS ("
+            + "  SELECT g.customer_id, NVL(g.target_calories, 0) AS target FROM goal g "
+            + "   WHERE g.idx = (SELECT MAX(g2.idx) FROM goal g2 WHERE g2.customer_id = g.customer_id)"
+            + "), active AS ("
+            + "  SELECT days.customer_id, TRUNC(days.d, '%2$s') AS period_start, days.m, days.l, days.dn, days.cnt, "
+            + "         NVL(t.target, 0) AS target "
+            + "    FROM days LEFT JOIN targets t ON t.customer_id = days.customer_id "
+            + "   WHERE days.m + days.l + days.dn > 0 OR days.cnt > 0"
+            + ") "
+            + "SELECT customer_id, '%1$s', period_start, SUM(m), SUM(l), SUM(dn), SUM(cnt), COUNT(*), SUM(target), ? "
+            + "  FROM active GROUP BY customer_id, period_start";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GoalRepository goalRepository;
+    private final NutritionRollupRepository nutritionRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLock jobLock;
+    private final boolean backfillOnStartup;
+
+    public NutritionRollupService(JdbcTemplate jdbcTemplate, GoalRepository goalRepository,
+            NutritionRollupRepository nutritionRollupRepository, TransactionTemplate transactionTemplate,
+            JobLock jobLock, @Value("${rollup.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.goalRepository = goalRepository;
+        this.nutritionRollupRepository = nutritionRollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLock = jobLock;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * 음식 1건 추가를 일/주/월 버킷에 반영합니다. 호출한 쪽(식단 저장)의 트랜잭션에 참여합니다.
+     * 그날 첫 기록이면 주/월 버킷의 day_count 와 target_total 도 함께 늘립니다.
+     */
+    @Transactional
+    public void apply(Long customerIdx, LocalDate day, String mealType, long calories) {
+        apply(customerIdx, day,
+                "morning".equals(mealType) ? calories : 0L,
+                "lunch".equals(mealType) ? calories : 0L,
+                "dinner".equals(mealType) ? calories : 0L,
+                1L);
+    }
+
+    /**
+     * 하루치 증분(식사별 칼로리 합 + 음식 개수)을 한 번에 반영합니다. (일괄 업로드에서 날짜별로 호출)
+     */
+    @Transactional
+    public void apply(Long customerIdx, LocalDate day, long morning, long lunch, long dinner, long items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // 1) 일 버킷: 새로 만들어졌으면 그날의 목표 칼로리를 기록
+        boolean newDay = false;
+        long target = 0L;
+        Object[] dayKey = { customerIdx, NutritionRollupEntity.DAY, Date.valueOf(day) };
+        if (update(dayKey, morning, lunch, dinner, items, 0L, 0L, now) == 0) {
+            target = currentTarget(customerIdx);
+            newDay = insert(dayKey, morning, lunch, dinner, items, 1L, target, now);
+            if (!newDay) {
+                update(dayKey, morning, lunch, dinner, items, 0L, 0L, now);
+            }
+        }
+
+        // 2) 주/월 버킷: 그날 첫 기록이면 day_count + 1, target_total + 목표
+        long dayDelta = newDay ? 1L : 0L;
+        long targetDelta = newDay ? target : 0L;
+        for (Object[] key : new Object[][] {
+                { customerIdx, NutritionRollupEntity.WEEK, Date.valueOf(weekStart(day)) },
+                { customerIdx, NutritionRollupEntity.MONTH, Date.valueOf(day.withDayOfMonth(1)) } }) {
+            if (update(key, morning, lunch, dinner, items, dayDelta, targetDelta, now) == 0
+                    && !insert(key, morning, lunch, dinner, items, dayDelta, targetDelta, now)) {
+                update(key, morning, lunch, dinner, items, dayDelta, targetDelta, now);
+            }
+        }
+    }
+
+    /**
+     * 기존 RECORD/meal_item 으로 집계 테이블을 다시 계산합니다. (일/주/월 각각 INSERT ... SELECT 한 번)
+     * DELETE 와 INSERT 를 한 트랜잭션으로 묶어 중간에 실패하면 이전 상태로 돌아가고,
+     * job_lock 으로 여러 서버가 동시에 돌지 않게 합니다. 다른 서버가 실행 중이면 false.
+     * 실행 중 들어온 식단 저장은 반영되지 않을 수 있으므로 기동 시 또는 트래픽이 없을 때 실행합니다.
+     */
+    public boolean backfill() {
+        return backfill(false);
+    }
+
+    // 집계 테이블이 비어 있으면 기동 시 한 번 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (nutritionRollupRepository.count() == 0) {
+                backfill(true);
+            }
+        } catch (Exception e) {
+            log.warn("[ROLLUP] 기동 시 backfill 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 기간별 집계 조회 (period = day / week / month, from ~ to 양 끝 포함)
+     */
+    @Transactional(readOnly = true)
+    public List<NutritionRollupResponse> getRollups(Long customerIdx, String period, String from, String to) {
+        String periodType;
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("잘못된 날짜 형식입니다.");
+        }
+        ChronoUnit unit;
+        switch (period == null ? "" : period.toLowerCase()) {
+            case "day":
+                periodType = NutritionRollupEntity.DAY;
+                unit = ChronoUnit.DAYS;
+                break;
+            case "week":
+                periodType = NutritionRollupEntity.WEEK;
+                fromDate = weekStart(fromDate);
+                unit = ChronoUnit.WEEKS;
+                break;
+            case "month":
+                periodType = NutritionRollupEntity.MONTH;
+                fromDate = fromDate.withDayOfMonth(1);
+                unit = ChronoUnit.MONTHS;
+                break;
+            default:
+                throw new IllegalArgumentException("잘못된 집계 단위입니다: " + period);
+        }
+        if (toDate.isBefore(fromDate) || unit.between(fromDate, toDate) >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("조회 기간이 올바르지 않습니다.");
+        }
+
+        String periodName = period.toLowerCase();
+        return nutritionRollupRepository
+                .findByCustomer_IdxAndPeriodTypeAndPeriodStartBetweenOrderByPeriodStartAsc(customerIdx, periodType,
+                        fromDate, toDate)
+                .stream()
+                .map(r -> {
+                    long total = r.getCaloriesM() + r.getCaloriesL() + r.getCaloriesD();
+                    return NutritionRollupResponse.builder()
+                            .period(periodName)
+                            .periodStart(r.getPeriodStart().toString())
+                            .caloriesM(r.getCaloriesM())
+                            .caloriesL(r.getCaloriesL())
+                            .caloriesD(r.getCaloriesD())
+                            .totalCalories(total)
+                            .itemCount(r.getItemCount())
+                            .dayCount(r.getDayCount())
+                            .targetCalories(r.getTargetTotal())
+                            .deviation(total - r.getTargetTotal())
+                            .build();
+                })
+                .toList();
+    }
+
+    /**** 메소드 ****/
+    // onlyIfEmpty: 잠금을 잡은 뒤 다시 확인 (먼저 잡은 서버가 이미 채웠으면 건너뜀)
+    private boolean backfill(boolean onlyIfEmpty) {
+        if (!jobLock.tryLock(BACKFILL_LOCK, BACKFILL_LEASE)) {
+            log.info("[ROLLUP] 다른 서버가 backfill 실행 중");
+            return false;
+        }
+        try {
+            if (onlyIfEmpty && nutritionRollupRepository.count() > 0) {
+                return false;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                int deleted = jdbcTemplate.update("DELETE FROM nutrition_rollup");
+                int days = jdbcTemplate.update(String.format(BACKFILL_SQL, NutritionRollupEntity.DAY, "DD"), now);
+                int weeks = jdbcTemplate.update(String.format(BACKFILL_SQL, NutritionRollupEntity.WEEK, "IW"), now);
+                int months = jdbcTemplate.update(String.format(BACKFILL_SQL, NutritionRollupEntity.MONTH, "MM"), now);
+                log.info("[ROLLUP] backfill 완료: deleted={}, days={}, weeks={}, months={}", deleted, days, weeks,
+                        months);
+            });
+            return true;
+        } finally {
+            jobLock.unlock(BACKFILL_LOCK);
+        }
+    }
+
+    private int update(Object[] key, long morning, long lunch, long dinner, long items, long dayDelta,
+            long targetDelta, Timestamp now) {
+        return jdbcTemplate.update(UPDATE_SQL, morning, lunch, dinner, items, dayDelta, targetDelta, now, key[0],
+                key[1], key[2]);
+    }
+
+    // 버킷 INSERT, 동시에 다른 요청이 먼저 만들었으면(uk_rollup_customer_period 위반) false
+    private boolean insert(Object[] key, long morning, long lunch, long dinner, long items, long dayCount,
+            long target, Timestamp now) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, key[0], key[1], key[2], morning, lunch, dinner, items, dayCount, target,
+                    now);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // 최신 목표 칼로리 (없으면 0)
+    private long currentTarget(Long customerIdx) {
+        return goalRepository.findTopByCustomer_IdxOrderByIdxDesc(customerIdx)
+                .map(GoalEntity::getTargetCalories)
+                .map(Integer::longValue)
+                .orElse(0L);
+    }
+
+    // ISO 주 시작일 (월요일)
+    private LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.health_care.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 순위 조회용 order-statistic 트리 (서브트리 크기를 가진 treap)
+ * 추가/삭제/순위(rank)/k번째 원소(get) 모두 기대 O(log n)
+ * comparator 상 같은 원소는 하나로 취급하므로 동점이 없도록 정렬 기준에 고유 키를 포함해야 합니다.
+ * 스레드 안전하지 않음 (호출하는 쪽에서 잠금)
+ */
+public class RankTree<T> {
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<T> root;
+
+    public RankTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    // 이미 같은 원소가 있으면 추가하지 않음
+    public boolean add(T value) {
+        if (contains(value)) {
+            return false;
+        }
+        Node<T>[] parts = split(root, value, false);
+        root = merge(merge(parts[0], new Node<>(value, random.nextInt())), parts[1]);
+        return true;
+    }
+
+    public boolean remove(T value) {
+        Node<T>[] lessAndRest = split(root, value, false);
+        Node<T>[] equalAndGreater = split(lessAndRest[1], value, true);
+        boolean removed = equalAndGreater[0] != null;
+        root = merge(lessAndRest[0], equalAndGreater[1]);
+        return removed;
+    }
+
+    public boolean contains(T value) {
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    // value 보다 앞에 있는 원소 수 (0부터 시작하는 순위)
+    public int rank(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    // index 번째 원소 (0부터)
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // from 번째부터 최대 count 개 (순서대로)
+    public List<T> slice(int from, int count) {
+        int start = Math.max(0, from);
+        int end = Math.min(size(), from + count);
+        List<T> result = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**** 메소드 ****/
+    // [value 보다 작은 원소, 나머지] 로 분리 (inclusive 면 같은 원소도 왼쪽)
+    @SuppressWarnings("unchecked")
+    private Node<T>[] split(Node<T> node, T value, boolean inclusive) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        int cmp = comparator.compare(node.value, value);
+        if (cmp < 0 || (inclusive && cmp == 0)) {
+            Node<T>[] parts = split(node.right, value, inclusive);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, value, inclusive);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    // left 의 모든 원소 < right 의 모든 원소
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private void update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private int size(Node<T> node) {
+        return node == null ? 0 : node.size;
+    }
+}
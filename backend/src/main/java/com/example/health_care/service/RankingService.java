@@ -1,49 +1,157 @@
 package com.example.health_care.service;
 
 import com.example.health_care.dto.CustomersProfileDTO;
-import com.example.health_care.entity.BodyEntity;
-import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.dto.RankingPageResponse;
+import com.example.health_care.dto.RankingRow;
+import com.example.health_care.entity.Gender;
 import com.example.health_care.repository.CustomersRepository;
-import com.example.health_care.repository.BodyRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * 랭킹 목록 서비스입니다.
+ * - 전체 목록은 SQL 한 번으로 만든 불변 스냅샷에서 제공 (주기적으로 새로 만들어 통째로 교체)
+ * - id 순(대소문자 무시, 같으면 원래 문자열 순) keyset 페이지: cursor 는 앞 페이지 마지막 id 를 인코딩한 값
+ * - 스냅샷 내용이 같으면 ETag 도 같으므로 재조회는 304 로 끝남
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class RankingService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // 화면 표시 순서 = keyset 순서 (예전 클라이언트 localeCompare(sensitivity: 'base') 정렬처럼 대소문자 무시)
+    // 대소문자만 다른 id 도 순서가 정해지도록 원래 문자열로 한 번 더 비교
+    private static final Comparator<String> ID_ORDER =
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    // 스냅샷 (목록/ids 는 수정 불가 리스트, 같은 순서)
+    private record Snapshot(List<CustomersProfileDTO> rows, List<String> ids, String etag) {}
+
+    // 페이지 + 그 페이지를 만든 스냅샷의 ETag (요청 cursor/size 는 URL 이 다르므로 스냅샷 단위로 충분)
+    public record Page(RankingPageResponse body, String etag) {}
+
     private final CustomersRepository customersRepository;
-    private final BodyRepository bodyRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
 
+    public RankingService(CustomersRepository customersRepository, PlatformTransactionManager transactionManager) {
+        this.customersRepository = customersRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // 고객 + 최신 BODY 목표를 SQL 한 번으로 조회 (고객마다 BODY 를 다시 조회하던 N+1 제거)
+    // 엔티티를 만들지 않고 행을 읽는 대로 DTO 로 변환
+    @Transactional(readOnly = true)
     public List<CustomersProfileDTO> getAllCustomersProfile() {
-        List<CustomersEntity> customers = customersRepository.findAll();
-        
-        return customers.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-    }
-
-    private CustomersProfileDTO convertToDto(CustomersEntity customer) {
-        // CustomersEntity의 idx를 이용해 BodyRepository에서 최신 BodyEntity를 조회합니다.
-        Optional<BodyEntity> latestBodyOptional = bodyRepository.findTopByCustomer_IdxOrderByIdxDesc(customer.getIdx());
-
-        CustomersProfileDTO.CustomersProfileDTOBuilder dtoBuilder = CustomersProfileDTO.builder()
-                .id(customer.getId())
-                .weight(customer.getWeight())
-                .age(customer.getAge())
-                .gender(customer.getGender())
-                .height(customer.getHeight());
-
-        // 최신 BodyEntity가 존재하면 targetWeight와 targetCalories를 DTO에 추가합니다.
-        if (latestBodyOptional.isPresent()) {
-            BodyEntity latestBody = latestBodyOptional.get();
-            dtoBuilder.targetWeight(latestBody.getTargetWeight())
-                      .targetCalories(latestBody.getTargetCalories());
+        try (Stream<RankingRow> rows = customersRepository.streamRankingRows()) {
+            return rows.map(this::convertToDto).collect(Collectors.toList());
+        }
+    }
+
+    // cursor(앞 페이지 마지막 id) 다음부터 size 개
+    public Page getPage(String cursor, int size) {
+        Snapshot current = currentSnapshot();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        int from = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            int found = Collections.binarySearch(current.ids(), decodeCursor(cursor), ID_ORDER);
+            from = found >= 0 ? found + 1 : -found - 1; // 그 사이 탈퇴한 id 여도 다음 위치부터
+        }
+        int to = Math.min(current.rows().size(), from + pageSize);
+        List<CustomersProfileDTO> content = current.rows().subList(from, to);
+
+        return new Page(RankingPageResponse.builder()
+                .content(content)
+                .next(to < current.rows().size() ? encodeCursor(current.ids().get(to - 1)) : null)
+                .size(content.size())
+                .total(current.rows().size())
+                .build(), current.etag());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refreshSnapshot();
+    }
+
+    // 새 스냅샷을 만든 뒤 교체 (만드는 동안에는 이전 스냅샷을 계속 제공)
+    @Scheduled(fixedDelayString = "${ranking.snapshot-refresh-ms:60000}")
+    public void refreshSnapshot() {
+        try {
+            List<CustomersProfileDTO> rows = readOnlyTx.execute(status -> getAllCustomersProfile());
+            snapshot.set(buildSnapshot(rows));
+        } catch (Exception e) {
+            log.warn("[RANKING] 스냅샷 갱신 실패, 이전 스냅샷 유지: {}", e.getMessage());
+        }
+    }
+
+    /**** 메소드 ****/
+    // 아직 스냅샷이 없으면(기동 직후) 바로 만듦
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            List<CustomersProfileDTO> rows = readOnlyTx.execute(status -> getAllCustomersProfile());
+            snapshot.compareAndSet(null, buildSnapshot(rows));
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    // keyset 이진 탐색과 순서가 어긋나지 않도록 DB 정렬(NLS_SORT) 대신 ID_ORDER 로 다시 정렬
+    private Snapshot buildSnapshot(List<CustomersProfileDTO> loaded) {
+        List<CustomersProfileDTO> rows = new ArrayList<>(loaded);
+        rows.sort(Comparator.comparing(CustomersProfileDTO::getId, ID_ORDER));
+        List<String> ids = new ArrayList<>(rows.size());
+        long hash = 17;
+        for (CustomersProfileDTO row : rows) {
+            ids.add(row.getId());
+            hash = hash * 31 + Objects.hash(row.getId(), row.getWeight(), row.getAge(), row.getGender(),
+                    row.getHeight(), row.getTargetWeight(), row.getTargetCalories());
         }
+        String etag = "\"r-" + Long.toHexString(hash) + "-" + rows.size() + "\"";
+        return new Snapshot(List.copyOf(rows), List.copyOf(ids), etag);
+    }
+
+    private String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + cursor);
+        }
+    }
 
-        return dtoBuilder.build();
+    private CustomersProfileDTO convertToDto(RankingRow row) {
+        return CustomersProfileDTO.builder()
+                .id(row.getId())
+                .weight(row.getWeight())
+                .age(row.getAge())
+                .gender(row.getGender() != null ? Gender.valueOf(row.getGender()) : null)
+                .height(row.getHeight())
+                .targetWeight(row.getTargetWeight())
+                .targetCalories(row.getTargetCalories())
+                .build();
     }
-}
\ No newline at end of file
+}
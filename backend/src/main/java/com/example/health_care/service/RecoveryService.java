@@ -8,6 +8,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.health_care.dto.RecoveryDTO.*;
 import com.example.health_care.entity.CustomersEntity;
@@ -31,6 +32,7 @@ public class RecoveryService {
     private final PasswordEncoder encoder;
     private final CustomersService customersService;
     private final TokenTool tokenTool;
+    private final TransactionTemplate transactionTemplate;
 
     private String norm(String s) {
         return s == null ? "" : s.trim().toLowerCase();
@@ -43,8 +45,8 @@ public class RecoveryService {
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
     }
 
-    @Transactional
-    public void setQuestions(String customerId, List<SetSecurityQuestionsRequest.Item> items) {
+    // 답 해시(BCrypt)는 트랜잭션 밖에서 먼저 만들고 저장만 트랜잭션으로
+    public void setQuestions(Long customerIdx, List<SetSecurityQuestionsRequest.Item> items) {
         if (items == null || items.size() < 3)
             throw new IllegalArgumentException("3개의 질문/답이 필요합니다.");
 
@@ -56,20 +58,22 @@ public class RecoveryService {
                 throw new IllegalArgumentException("질문 코드가 중복되었습니다.");
         }
 
-        // String 이메일(id)을 Long idx로 변환
-        Long customerIdx = getCustomerIdx(customerId);
+        Map<RecoveryQuestionCode, String> hashByCode = new EnumMap<>(RecoveryQuestionCode.class);
+        for (var it : items) {
+            hashByCode.put(it.getCode(), encoder.encode(norm(it.getAnswer())));
+        }
 
         // 저장(3개)
-        for (var it : items) {
-            var opt = repo.findByCustomerIdAndCode(customerIdx, it.getCode());
+        transactionTemplate.executeWithoutResult(status -> hashByCode.forEach((code, hash) -> {
+            var opt = repo.findByCustomerIdAndCode(customerIdx, code);
             RecoveryEntity e = opt.orElseGet(() -> RecoveryEntity.builder()
                     .customerId(customerIdx)
-                    .code(it.getCode())
+                    .code(code)
                     .build());
-            e.setAnswerHash(encoder.encode(norm(it.getAnswer())));
+            e.setAnswerHash(hash);
             e.setUpdatedAt(LocalDateTime.now());
             repo.save(e);
-        }
+        }));
     }
 
     @Transactional(readOnly = true)
@@ -84,13 +88,14 @@ public class RecoveryService {
         return codes.subList(0, 2);
     }
 
-    @Transactional(readOnly = true)
+    // 해시만 읽고 커밋한 뒤 비교 (BCrypt 비교 동안 DB 커넥션을 잡지 않음)
     public boolean verifyAnswers(String customerId, Map<RecoveryQuestionCode, String> provided) {
-        // String 이메일(id)을 Long idx로 변환
-        Long customerIdx = getCustomerIdx(customerId);
-        List<RecoveryEntity> all = repo.findByCustomerId(customerIdx);
-        Map<RecoveryQuestionCode, String> hashByCode = all.stream()
-                .collect(Collectors.toMap(RecoveryEntity::getCode, RecoveryEntity::getAnswerHash));
+        Map<RecoveryQuestionCode, String> hashByCode = transactionTemplate.execute(status -> {
+            // String 이메일(id)을 Long idx로 변환
+            Long customerIdx = getCustomerIdx(customerId);
+            return repo.findByCustomerId(customerIdx).stream()
+                    .collect(Collectors.toMap(RecoveryEntity::getCode, RecoveryEntity::getAnswerHash));
+        });
         for (var entry : provided.entrySet()) {
             RecoveryQuestionCode code = entry.getKey();
             String ans = norm(entry.getValue());
@@ -110,7 +115,7 @@ public class RecoveryService {
         return tokenTool.parse(token);
     }
 
-    @Transactional
+    // updatePassword 가 해시 후 자체 트랜잭션으로 저장하므로 여기서는 트랜잭션을 열지 않음
     public boolean resetPasswordWithToken(String recoveryToken, String newPassword) {
         String uid = parseRecoveryToken(recoveryToken);
         if (uid == null)
@@ -0,0 +1,160 @@
+package com.example.health_care.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.health_care.entity.RefreshTokenEntity;
+import com.example.health_care.repository.RefreshTokenRepository;
+import com.example.health_care.security.CustomerPrincipal;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * refresh 토큰 발급/회전/폐기
+ * - 원문은 클라이언트에만, DB 에는 SHA-256 hex (uk_refresh_token_hash 로 한 번에 조회)
+ * - rotate: 토큰을 used 처리하고 같은 family 에 새 토큰 발급
+ * - 이미 used 인 토큰이 다시 오면 탈취로 보고 family 전체 폐기
+ * - 로그아웃은 family 폐기, 비밀번호 변경은 고객의 모든 family 폐기
+ * 만료된 행은 매일 배치 단위로 삭제합니다 (job_lock 으로 한 서버만 실행).
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final String PURGE_LOCK = "refresh-token-purge";
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final int PURGE_MAX_BATCHES = 100;
+
+    private final RefreshTokenRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLock jobLock;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    // 회전 결과: 새 refresh 토큰 원문 + access 토큰 발급에 필요한 사용자 정보
+    public record Rotated(String refreshToken, String loginId, Long customerIdx, int tokenVersion) {}
+
+    public RefreshTokenService(RefreshTokenRepository repository, JdbcTemplate jdbcTemplate, JobLock jobLock,
+            @Value("${jwt.refresh-token-days:14}") long ttlDays) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobLock = jobLock;
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+    // 로그인: 새 family 로 발급
+    @Transactional
+    public String issue(CustomerPrincipal principal) {
+        return save(UUID.randomUUID().toString(), principal.getCustomerIdx(), principal.getUsername(),
+                principal.getTokenVersion());
+    }
+
+    // refresh: 토큰 1건 조회 → used 처리 → 같은 family 로 새 토큰
+    // 재사용 감지 시 family 폐기는 커밋되어야 하므로 BadCredentialsException 은 롤백하지 않음
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotated rotate(String refreshToken) {
+        RefreshTokenEntity current = find(refreshToken);
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null || !current.getExpiresAt().isAfter(now)) {
+            throw new BadCredentialsException("만료되었거나 폐기된 refresh 토큰입니다.");
+        }
+        if (current.getUsedAt() != null || repository.markUsed(current.getIdx(), now) == 0) {
+            int revoked = repository.revokeFamily(current.getFamilyId(), now);
+            log.warn("[AUTH] refresh 토큰 재사용 감지, family 폐기: customer={}, tokens={}",
+                    current.getCustomerId(), revoked);
+            throw new BadCredentialsException("이미 사용된 refresh 토큰입니다.");
+        }
+        String next = save(current.getFamilyId(), current.getCustomerId(), current.getLoginId(),
+                current.getTokenVersion());
+        return new Rotated(next, current.getLoginId(), current.getCustomerId(), current.getTokenVersion());
+    }
+
+    // 로그아웃: 이 토큰의 family 폐기 (모르는 토큰이면 무시)
+    @Transactional
+    public void revokeFamily(String refreshToken) {
+        repository.findByTokenHash(hash(refreshToken))
+                .ifPresent(t -> repository.revokeFamily(t.getFamilyId(), LocalDateTime.now()));
+    }
+
+    // 비밀번호 변경: 고객의 모든 refresh 토큰 폐기 (호출한 쪽 트랜잭션에 참여)
+    @Transactional
+    public void revokeAll(Long customerIdx) {
+        repository.revokeAllByCustomer(customerIdx, LocalDateTime.now());
+    }
+
+    // 만료된 토큰 삭제 (만료 전 used/revoked 행은 재사용 감지를 위해 남겨 둠)
+    @Scheduled(cron = "${jwt.refresh-token-purge-cron:0 55 3 * * *}")
+    public int purgeExpired() {
+        if (!jobLock.tryLock(PURGE_LOCK, Duration.ofMinutes(10))) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < PURGE_MAX_BATCHES; i++) {
+                int deleted = jdbcTemplate.update(
+                        "DELETE FROM refresh_token WHERE expires_at < ? AND ROWNUM <= ?", cutoff, PURGE_BATCH_SIZE);
+                total += deleted;
+                if (deleted < PURGE_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } finally {
+            jobLock.unlock(PURGE_LOCK);
+        }
+        if (total > 0) {
+            log.info("[AUTH] 만료 refresh 토큰 삭제: {}", total);
+        }
+        return total;
+    }
+
+    /**** 메소드 ****/
+    private RefreshTokenEntity find(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new BadCredentialsException("refresh 토큰이 필요합니다.");
+        }
+        return repository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("알 수 없는 refresh 토큰입니다."));
+    }
+
+    private String save(String familyId, Long customerIdx, String loginId, int tokenVersion) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .customerId(customerIdx)
+                .loginId(loginId)
+                .tokenVersion(tokenVersion)
+                .expiresAt(now.plus(ttl))
+                .createdAt(now)
+                .build());
+        return token;
+    }
+
+    private String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,31 +1,114 @@
 package com.example.health_care.service;
 
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.health_care.entity.BlacklistedTokenEntity;
 import com.example.health_care.repository.BlacklistedTokenRepository;
+import com.example.health_care.security.JwtTokenProvider;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
-@RequiredArgsConstructor
+/**
+ * 로그아웃 등으로 폐기된 토큰 목록
+ * - 조회는 메모리: Bloom filter 에 없으면 바로 false (대부분의 요청), 있으면 만료 시각 맵으로 확인
+ * - 기록은 Oracle(blacklisted_tokens) 에도 남기고, 다른 서버가 추가한 항목은 주기적으로 폴링
+ * - 키는 토큰의 jti (jti 없는 이전 토큰은 SHA-256(토큰) hex)
+ * 기동 직후 적재가 끝나기 전에는 DB 로 확인합니다.
+ * 만료된 행은 매일 배치 단위로 삭제합니다 (job_lock 으로 한 서버만 실행).
+ */
+@Slf4j
 @Service
 public class TokenBlacklistService {
 
+    private static final double BLOOM_FPP = 0.01;
+
+    private static final String PURGE_LOCK = "blacklist-purge";
+
     private final BlacklistedTokenRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLock jobLock;
+    private final int bloomExpected;
+    private final long pollOverlapSeconds;
+    private final int purgeBatchSize;
+    private final int purgeMaxBatches;
+    private final Duration purgeLease;
+    private final Counter purgedCounter;
+    private final Timer purgeTimer;
 
-    @Transactional(readOnly = true)
-    public boolean isBlacklisted(String token) {
-        return repository.existsByToken(token);
+    // 폐기 키 → 토큰 만료 시각(ms), 만료가 지나면 제거
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile BloomFilter bloom;
+    private volatile int bloomCapacity;
+    private volatile boolean loaded;
+    private LocalDateTime lastPolledAt;
+
+    public TokenBlacklistService(BlacklistedTokenRepository repository, JdbcTemplate jdbcTemplate, JobLock jobLock,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.revocation.bloom-expected:10000}") int bloomExpected,
+            @Value("${jwt.revocation.poll-overlap-seconds:60}") long pollOverlapSeconds,
+            @Value("${jwt.revocation.purge-batch-size:1000}") int purgeBatchSize,
+            @Value("${jwt.revocation.purge-max-batches:100}") int purgeMaxBatches,
+            @Value("${jwt.revocation.purge-lock-minutes:10}") long purgeLockMinutes) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobLock = jobLock;
+        this.bloomExpected = bloomExpected;
+        this.pollOverlapSeconds = pollOverlapSeconds;
+        this.purgeBatchSize = purgeBatchSize;
+        this.purgeMaxBatches = purgeMaxBatches;
+        this.purgeLease = Duration.ofMinutes(purgeLockMinutes);
+        this.purgedCounter = Counter.builder("blacklist.purge.deleted")
+                .description("Expired blacklisted tokens deleted by the scheduled purge")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("blacklist.purge")
+                .description("Scheduled blacklist purge run time")
+                .register(meterRegistry);
+        Gauge.builder("blacklist.revoked", revoked, Map::size)
+                .description("Revoked tokens held in memory")
+                .register(meterRegistry);
+        this.bloomCapacity = bloomExpected;
+        this.bloom = new BloomFilter(bloomExpected, BLOOM_FPP);
+    }
+
+    public boolean isBlacklisted(String revocationKey) {
+        if (!loaded) {
+            return repository.existsByJti(revocationKey);
+        }
+        if (!bloom.mightContain(revocationKey)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(revocationKey);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
     }
 
     @Transactional
-    public void blacklist(String token, String userId, LocalDateTime expiresAt, String reason) {
-        if (repository.existsByToken(token)) return;
+    public void blacklist(String token, String revocationKey, String userId, LocalDateTime expiresAt, String reason) {
+        // 로컬에는 먼저 반영 (같은 토큰의 다음 요청부터 바로 차단)
+        add(revocationKey, expiresAt);
+        if (repository.existsByJti(revocationKey)) return;
         BlacklistedTokenEntity e = BlacklistedTokenEntity.builder()
                 .token(token)
+                .jti(revocationKey)
                 .userId(userId)
                 .expiresAt(expiresAt)
                 .createdAt(LocalDateTime.now())
@@ -34,8 +117,110 @@ public class TokenBlacklistService {
         repository.save(e);
     }
 
-    @Transactional
+    // 만료된 폐기 토큰 삭제 (여러 서버 중 job_lock 을 잡은 한 곳만)
+    // 한 번에 batch-size 행씩 별도 문장(자동 커밋)으로 지워 잠금을 오래 잡지 않음, 최대 max-batches 번
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 50 3 * * *}")
     public int purgeExpired() {
-        return repository.deleteAllExpired(LocalDateTime.now());
+        if (!jobLock.tryLock(PURGE_LOCK, purgeLease)) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        int total = 0;
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < purgeMaxBatches; i++) {
+                int deleted = jdbcTemplate.update(
+                        "DELETE FROM blacklisted_tokens WHERE expires_at < ? AND ROWNUM <= ?", cutoff, purgeBatchSize);
+                total += deleted;
+                if (deleted < purgeBatchSize) {
+                    break;
+                }
+            }
+        } finally {
+            jobLock.unlock(PURGE_LOCK);
+            purgeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            purgedCounter.increment(total);
+        }
+        if (total > 0) {
+            log.info("[Blacklist] 만료 토큰 삭제: {}", total);
+        }
+        return total;
+    }
+
+    // 기동 시 만료 전 폐기 토큰 전체 적재
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BlacklistedTokenEntity> rows = repository.findByExpiresAtAfter(now);
+        synchronized (writeLock) {
+            for (BlacklistedTokenEntity row : rows) {
+                add(row);
+            }
+            lastPolledAt = now;
+        }
+        loaded = true;
+        log.info("[Blacklist] {} revoked tokens loaded", rows.size());
+    }
+
+    // 다른 서버가 추가한 항목 반영 + 만료 항목 정리
+    // created_at 은 각 서버 시계로 찍히고 커밋이 늦을 수 있으므로 poll-overlap-seconds 만큼 겹쳐 읽음
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-ms:5000}")
+    @Transactional(readOnly = true)
+    public void poll() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since;
+        synchronized (writeLock) {
+            since = lastPolledAt.minusSeconds(pollOverlapSeconds);
+        }
+        List<BlacklistedTokenEntity> rows = repository.findByCreatedAtGreaterThanEqual(since);
+        synchronized (writeLock) {
+            for (BlacklistedTokenEntity row : rows) {
+                add(row);
+            }
+            lastPolledAt = now;
+            evictExpired();
+        }
+    }
+
+    private void add(BlacklistedTokenEntity row) {
+        // jti 컬럼 추가 전에 들어간 행은 토큰 원문에서 키를 만듦 (필터의 getRevocationKey 와 같은 값)
+        String key = row.getJti() != null ? row.getJti() : JwtTokenProvider.tokenHashKey(row.getToken());
+        add(key, row.getExpiresAt());
+    }
+
+    private void add(String revocationKey, LocalDateTime expiresAt) {
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (writeLock) {
+            if (revoked.put(revocationKey, expiresAtMillis) == null) {
+                if (revoked.size() > bloomCapacity) {
+                    rebuildBloom();
+                } else {
+                    bloom.put(revocationKey);
+                }
+            }
+        }
+    }
+
+    // Bloom filter 는 삭제가 안 되므로 만료 항목을 뺀 뒤 새로 만들어 교체
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            rebuildBloom();
+        }
+    }
+
+    // writeLock 안에서 호출
+    private void rebuildBloom() {
+        int capacity = Math.max(bloomExpected, revoked.size() * 2);
+        BloomFilter next = new BloomFilter(capacity, BLOOM_FPP);
+        for (String key : revoked.keySet()) {
+            next.put(key);
+        }
+        bloomCapacity = capacity;
+        bloom = next;
     }
 }
@@ -0,0 +1,512 @@
+package com.example.health_care.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.health_care.dto.LeaderboardAroundResponse;
+import com.example.health_care.dto.LeaderboardEntryDTO;
+import com.example.health_care.dto.WindowLeaderboardResponse;
+import com.example.health_care.entity.ChangeLogEntity;
+import com.example.health_care.entity.NutritionRollupEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기간(오늘 / 이번 주 / 이번 달) 리더보드 서비스입니다.
+ * - 점수 = 식단 준수도(0~100) + 목표 방향 체중 변화 점수(kg 당 10점, ±30 상한)
+ *   준수도 = (1 - |섭취 - 목표| / 목표) × (기록한 날 / 지난 날), 섭취/목표는 nutrition_rollup 해당 기간 행 1개
+ * - 기간마다 해당 기간에 활동한 고객만 RankTree 에 보관 (max-entries 초과 시 하위권은 보관하지 않음)
+ * - 식단/신체 변경이 커밋되면 그 고객의 세 기간 점수만 다시 계산
+ * - 매일 0시: 기간이 끝난 보드는 최종 순위를 leaderboard_archive 에 기록한 뒤 새 기간으로 교체,
+ *   진행 중인 주/월 보드는 (지난 날 수가 바뀌므로) 다시 계산
+ *   보관은 job_lock 을 잡은 한 서버가 한 트랜잭션으로 (다른 서버는 보관이 끝나면 읽기만)
+ * - 지난 기간 순위는 보관 테이블에서 읽어 메모리에 두고 그대로 응답
+ */
+@Slf4j
+@Service
+public class WindowedLeaderboardService {
+
+    public static final String CURRENT = "current";
+    public static final String PREVIOUS = "previous";
+
+    private static final double WEIGHT_POINTS_PER_KG = 10;
+    private static final double WEIGHT_POINTS_CAP = 30;
+    private static final int MAX_TOP = 100;
+    private static final int MAX_AROUND = 50;
+    private static final Duration ARCHIVE_LEASE = Duration.ofMinutes(10);
+    private static final int ARCHIVE_WAIT_SECONDS = 30;
+
+    // 기간 종류 (periodType 은 nutrition_rollup 과 같은 값)
+    enum Window {
+        DAY("day", NutritionRollupEntity.DAY),
+        WEEK("week", NutritionRollupEntity.WEEK),
+        MONTH("month", NutritionRollupEntity.MONTH);
+
+        private final String period;
+        private final String periodType;
+
+        Window(String period, String periodType) {
+            this.period = period;
+            this.periodType = periodType;
+        }
+
+        LocalDate start(LocalDate day) {
+            switch (this) {
+                case WEEK:
+                    return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return day.withDayOfMonth(1);
+                default:
+                    return day;
+            }
+        }
+
+        // 다음 기간 시작일 (= 이 기간 끝, 미포함)
+        LocalDate end(LocalDate start) {
+            switch (this) {
+                case WEEK:
+                    return start.plusWeeks(1);
+                case MONTH:
+                    return start.plusMonths(1);
+                default:
+                    return start.plusDays(1);
+            }
+        }
+
+        static Window of(String period) {
+            for (Window window : values()) {
+                if (window.period.equalsIgnoreCase(period)) {
+                    return window;
+                }
+            }
+            throw new IllegalArgumentException("잘못된 기간입니다: " + period);
+        }
+    }
+
+    private record Entry(Long customerIdx, String id, double score) {}
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::customerIdx);
+
+    // 진행 중인 기간 보드 (잠금 안에서만 수정)
+    private static final class Board {
+        private final LocalDate start;
+        private final RankTree<Entry> tree = new RankTree<>(ORDER);
+        private final Map<Long, Entry> byCustomer = new HashMap<>();
+
+        private Board(LocalDate start) {
+            this.start = start;
+        }
+    }
+
+    // 보관된 지난 기간 순위 (불변)
+    private record Archived(LocalDate start, List<LeaderboardEntryDTO> entries, Map<Long, Integer> indexByCustomer) {}
+
+    // 기간 안에 식단 집계가 있거나 체중 기록이 있는 고객의 점수 재료 (%1$s = 고객 조건, %2$s = 바깥 고객 조건)
+    private static final String SCORE_SQL = "SELECT c.idx, c.id, "
+            + "NVL(nr.calories_m + nr.calories_l + nr.calories_d, 0), NVL(nr.target_total, 0), "
+            + "NVL(nr.day_count, 0), bw.weight, lw.weight, tw.target_weight "
+            + "FROM customers c "
+            + "LEFT JOIN nutrition_rollup nr "
+            + "ON nr.customer_id = c.idx AND nr.period_type = ? AND nr.period_start = ? "
+            + "LEFT JOIN (SELECT customer_id, weight, "
+            + "ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY record_date DESC, idx DESC) AS rn "
+            + "FROM body WHERE weight IS NOT NULL AND record_date < ?%1$s) bw "
+            + "ON bw.customer_id = c.idx AND bw.rn = 1 "
+            + "LEFT JOIN (SELECT customer_id, weight, "
+            + "ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY record_date DESC, idx DESC) AS rn "
+            + "FROM body WHERE weight IS NOT NULL AND record_date >= ? AND record_date < ?%1$s) lw "
+            + "ON lw.customer_id = c.idx AND lw.rn = 1 "
+            + "LEFT JOIN (SELECT customer_id, target_weight, "
+            + "ROW_NUMBER() OVER (PARTITION BY customer_id ORDER BY idx DESC) AS rn "
+            + "FROM body WHERE target_weight IS NOT NULL%1$s) tw "
+            + "ON tw.customer_id = c.idx AND tw.rn = 1 "
+            + "WHERE (nr.customer_id IS NOT NULL OR lw.customer_id IS NOT NULL)%2$s";
+
+    private static final String ARCHIVE_SQL = "INSERT INTO leaderboard_archive "
+            + "(period_type, period_start, rank_no, customer_id, login_id, score, archived_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLock jobLock;
+    private final int maxEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Window, Board> boards = new HashMap<>();
+    private final Map<Window, Archived> previous = new HashMap<>();
+
+    public WindowedLeaderboardService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            JobLock jobLock, @Value("${leaderboard.window.max-entries:10000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLock = jobLock;
+        this.maxEntries = maxEntries;
+    }
+
+    // 기간 리더보드 상위 n 명 (scope = current / previous)
+    public WindowLeaderboardResponse getTop(String period, String scope, int n) {
+        Window window = Window.of(period);
+        boolean previousScope = isPrevious(scope);
+        int size = Math.max(1, Math.min(n, MAX_TOP));
+
+        lock.readLock().lock();
+        try {
+            if (previousScope) {
+                Archived archived = previous.get(window);
+                LocalDate start = archived != null ? archived.start()
+                        : window.start(window.start(LocalDate.now()).minusDays(1));
+                List<LeaderboardEntryDTO> entries = archived != null ? archived.entries() : List.of();
+                return response(window, PREVIOUS, start, entries.size(),
+                        entries.subList(0, Math.min(size, entries.size())));
+            }
+            Board board = boards.get(window);
+            if (board == null) {
+                return response(window, CURRENT, window.start(LocalDate.now()), 0, List.of());
+            }
+            return response(window, CURRENT, board.start, board.tree.size(),
+                    toDtos(0, board.tree.slice(0, size)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 기간 리더보드에서 내 순위와 앞뒤 around 명 (해당 기간 활동이 없으면 me = null)
+    public LeaderboardAroundResponse getAround(Long customerIdx, String period, String scope, int around) {
+        Window window = Window.of(period);
+        boolean previousScope = isPrevious(scope);
+        int size = Math.max(0, Math.min(around, MAX_AROUND));
+
+        lock.readLock().lock();
+        try {
+            if (previousScope) {
+                Archived archived = previous.get(window);
+                List<LeaderboardEntryDTO> entries = archived != null ? archived.entries() : List.of();
+                Integer index = archived != null ? archived.indexByCustomer().get(customerIdx) : null;
+                if (index == null) {
+                    return around(window, entries.size(), null, List.of());
+                }
+                int from = Math.max(0, index - size);
+                int to = Math.min(entries.size(), index + size + 1);
+                return around(window, entries.size(), entries.get(index), entries.subList(from, to));
+            }
+
+            Board board = boards.get(window);
+            Entry mine = board != null ? board.byCustomer.get(customerIdx) : null;
+            if (mine == null) {
+                return around(window, board != null ? board.tree.size() : 0, null, List.of());
+            }
+            int rank = board.tree.rank(mine);
+            int from = Math.max(0, rank - size);
+            return around(window, board.tree.size(), toDto(rank, mine),
+                    toDtos(from, board.tree.slice(from, rank - from + size + 1)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 식단/신체 변경이 커밋된 뒤 해당 고객의 진행 중인 기간 점수만 다시 계산
+    @TransactionalEventListener
+    public void onCustomerDataChanged(CustomerDataChangedEvent event) {
+        if (!event.entities().contains(ChangeLogEntity.DIET) && !event.entities().contains(ChangeLogEntity.BODY)
+                && !event.entities().contains(ChangeLogEntity.GOAL)) {
+            return;
+        }
+        for (Window window : Window.values()) {
+            try {
+                LocalDate start;
+                lock.readLock().lock();
+                try {
+                    Board board = boards.get(window);
+                    if (board == null) {
+                        continue;
+                    }
+                    start = board.start;
+                } finally {
+                    lock.readLock().unlock();
+                }
+                List<Entry> loaded = loadScores(window, start, event.customerIdx());
+
+                lock.writeLock().lock();
+                try {
+                    Board board = boards.get(window);
+                    if (board != null && board.start.equals(start)) { // 그 사이 기간이 바뀌었으면 버림
+                        put(board, event.customerIdx(), loaded.isEmpty() ? null : loaded.get(0));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (Exception e) {
+                // 0시 재계산 때 맞춰지므로 요청은 실패시키지 않음
+                log.warn("[LEADERBOARD:WINDOW] 점수 갱신 실패: window={}, customerIdx={}, {}", window.period,
+                        event.customerIdx(), e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initOnStartup() {
+        rotate();
+    }
+
+    // 기간 경계(매일 0시): 끝난 기간은 보관 후 교체, 진행 중인 기간은 다시 계산
+    // 서버가 꺼져 있어 경계를 놓쳤어도 직전 기간이 보관돼 있지 않으면 여기서 계산해 보관
+    @Scheduled(cron = "${leaderboard.window.rotate-cron:0 0 0 * * *}")
+    public void rotate() {
+        LocalDate today = LocalDate.now();
+        for (Window window : Window.values()) {
+            try {
+                LocalDate currentStart = window.start(today);
+                LocalDate previousStart = window.start(currentStart.minusDays(1));
+
+                // 1) 직전 기간 최종 순위 보관 (이미 보관돼 있으면 그대로 읽기만)
+                Archived archived = loadArchive(window, previousStart);
+                if (archived == null) {
+                    archived = archiveOnce(window, previousStart);
+                }
+
+                // 2) 진행 중인 기간 다시 계산 후 교체
+                Board current = buildBoard(window, currentStart);
+
+                lock.writeLock().lock();
+                try {
+                    boards.put(window, current);
+                    if (archived != null) {
+                        previous.put(window, archived);
+                    } else {
+                        previous.remove(window); // 직전 기간에 활동이 없었으면 그 전 기간 순위를 남기지 않음
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("[LEADERBOARD:WINDOW] {} 보드 갱신: start={}, customers={}, previous={}", window.period,
+                        currentStart, current.tree.size(), archived != null ? archived.entries().size() : 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("[LEADERBOARD:WINDOW] {} 보드 갱신 실패: {}", window.period, e.getMessage());
+            }
+        }
+    }
+
+    /**** 메소드 ****/
+    // scope 값 확인 (없으면 current, 모르는 값은 400)
+    private static boolean isPrevious(String scope) {
+        if (scope == null || CURRENT.equalsIgnoreCase(scope)) {
+            return false;
+        }
+        if (PREVIOUS.equalsIgnoreCase(scope)) {
+            return true;
+        }
+        throw new IllegalArgumentException("잘못된 scope 입니다: " + scope);
+    }
+
+    // job_lock 을 잡은 한 서버만 직전 기간을 계산해 보관, 다른 서버는 보관이 끝날 때까지 기다렸다가 읽음
+    private Archived archiveOnce(Window window, LocalDate start) throws InterruptedException {
+        String lockName = "leaderboard-archive-" + window.period;
+        if (jobLock.tryLock(lockName, ARCHIVE_LEASE)) {
+            try {
+                Archived archived = loadArchive(window, start); // 먼저 잡은 서버가 이미 보관했을 수 있음
+                if (archived != null) {
+                    return archived;
+                }
+                archive(window, buildBoard(window, start));
+            } finally {
+                jobLock.unlock(lockName);
+            }
+            return loadArchive(window, start);
+        }
+        for (int i = 0; i < ARCHIVE_WAIT_SECONDS; i++) {
+            TimeUnit.SECONDS.sleep(1);
+            Archived archived = loadArchive(window, start);
+            if (archived != null) {
+                return archived;
+            }
+        }
+        log.info("[LEADERBOARD:WINDOW] {} {} 다른 서버의 보관을 기다리다 건너뜀", window.period, start);
+        return null;
+    }
+
+    private Board buildBoard(Window window, LocalDate start) {
+        Board board = new Board(start);
+        for (Entry entry : loadScores(window, start, null)) {
+            put(board, entry.customerIdx(), entry);
+        }
+        return board;
+    }
+
+    // 고객 점수 교체 (entry 가 null 이면 제거), 보드가 가득 차면 꼴찌보다 낮은 점수는 보관하지 않음
+    private void put(Board board, Long customerIdx, Entry entry) {
+        Entry old = board.byCustomer.remove(customerIdx);
+        if (old != null) {
+            board.tree.remove(old);
+        }
+        if (entry == null) {
+            return;
+        }
+        if (board.tree.size() >= maxEntries) {
+            Entry last = board.tree.get(board.tree.size() - 1);
+            if (ORDER.compare(entry, last) >= 0) {
+                return;
+            }
+            board.tree.remove(last);
+            board.byCustomer.remove(last.customerIdx());
+        }
+        board.tree.add(entry);
+        board.byCustomer.put(customerIdx, entry);
+    }
+
+    // 최종 순위를 한 트랜잭션의 JDBC 배치로 기록 (중간에 실패하면 한 행도 남지 않아 다음 rotate 에서 다시 보관)
+    private void archive(Window window, Board board) {
+        Date start = Date.valueOf(board.start);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Entry> entries = board.tree.slice(0, board.tree.size());
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            rows.add(new Object[] { window.periodType, start, i + 1, entry.customerIdx(), entry.id(), entry.score(),
+                    now });
+        }
+        if (rows.isEmpty()) {
+            return; // 활동한 고객이 없던 기간 (보관할 행 없음, 조회 시 빈 목록)
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(ARCHIVE_SQL, rows));
+        } catch (DuplicateKeyException e) {
+            log.info("[LEADERBOARD:WINDOW] {} {} 이미 보관됨", window.period, board.start);
+        }
+    }
+
+    // 보관된 순위 (없으면 null)
+    private Archived loadArchive(Window window, LocalDate start) {
+        Map<Long, Integer> indexByCustomer = new HashMap<>();
+        List<LeaderboardEntryDTO> entries = jdbcTemplate.query(
+                "SELECT rank_no, login_id, score, customer_id FROM leaderboard_archive "
+                        + "WHERE period_type = ? AND period_start = ? ORDER BY rank_no",
+                (rs, rowNum) -> {
+                    indexByCustomer.put(rs.getLong(4), rowNum);
+                    return LeaderboardEntryDTO.builder()
+                            .rank(rs.getInt(1))
+                            .id(rs.getString(2))
+                            .score(rs.getDouble(3))
+                            .build();
+                },
+                window.periodType, Date.valueOf(start));
+        if (entries.isEmpty()) {
+            return null;
+        }
+        return new Archived(start, List.copyOf(entries), Map.copyOf(indexByCustomer));
+    }
+
+    // customerIdx 가 null 이면 기간 안에 활동한 전체 고객
+    private List<Entry> loadScores(Window window, LocalDate start, Long customerIdx) {
+        LocalDate end = window.end(start);
+        LocalDate today = LocalDate.now();
+        // 지난 날 수 (끝난 기간은 기간 전체)
+        long elapsedDays = Math.max(1, ChronoUnit.DAYS.between(start, today.isBefore(end) ? today.plusDays(1) : end));
+
+        boolean single = customerIdx != null;
+        Timestamp startTs = Timestamp.valueOf(start.atStartOfDay());
+        Timestamp endTs = Timestamp.valueOf(end.atStartOfDay());
+        List<Object> args = new ArrayList<>();
+        args.add(window.periodType);
+        args.add(Date.valueOf(start));
+        args.add(startTs);
+        if (single) {
+            args.add(customerIdx);
+        }
+        args.add(startTs);
+        args.add(endTs);
+        if (single) {
+            args.add(customerIdx);
+            args.add(customerIdx);
+            args.add(customerIdx);
+        }
+
+        String sql = String.format(SCORE_SQL, single ? " AND customer_id = ?" : "", single ? " AND c.idx = ?" : "");
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new Entry(rs.getLong(1), rs.getString(2),
+                        score(rs.getLong(3), rs.getLong(4), rs.getLong(5), elapsedDays,
+                                rs.getObject(6, Double.class), rs.getObject(7, Double.class),
+                                rs.getObject(8, Double.class))),
+                args.toArray());
+    }
+
+    static double score(long calories, long target, long dayCount, long elapsedDays, Double baseWeight,
+            Double lastWeight, Double targetWeight) {
+        double adherence = 0;
+        if (target > 0 && dayCount > 0) {
+            double accuracy = Math.max(0, 1 - Math.abs(calories - target) / (double) target);
+            adherence = accuracy * Math.min(1.0, dayCount / (double) elapsedDays) * 100;
+        }
+        double weight = 0;
+        if (baseWeight != null && lastWeight != null && targetWeight != null && !baseWeight.equals(targetWeight)) {
+            // 목표 방향으로 움직인 kg (반대 방향이면 음수)
+            double toward = (baseWeight - lastWeight) * Math.signum(baseWeight - targetWeight);
+            weight = Math.max(-WEIGHT_POINTS_CAP, Math.min(WEIGHT_POINTS_CAP, toward * WEIGHT_POINTS_PER_KG));
+        }
+        return Math.round((adherence + weight) * 10) / 10.0;
+    }
+
+    private WindowLeaderboardResponse response(Window window, String scope, LocalDate start, int total,
+            List<LeaderboardEntryDTO> entries) {
+        return WindowLeaderboardResponse.builder()
+                .period(window.period)
+                .scope(scope)
+                .periodStart(start.toString())
+                .periodEnd(window.end(start).minusDays(1).toString())
+                .total(total)
+                .entries(entries)
+                .build();
+    }
+
+    private LeaderboardAroundResponse around(Window window, int total, LeaderboardEntryDTO me,
+            List<LeaderboardEntryDTO> neighbors) {
+        return LeaderboardAroundResponse.builder()
+                .scoreType(window.period)
+                .total(total)
+                .me(me)
+                .neighbors(neighbors)
+                .build();
+    }
+
+    private List<LeaderboardEntryDTO> toDtos(int fromRank, List<Entry> entries) {
+        List<LeaderboardEntryDTO> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(toDto(fromRank + i, entries.get(i)));
+        }
+        return result;
+    }
+
+    private LeaderboardEntryDTO toDto(int rank, Entry entry) {
+        return LeaderboardEntryDTO.builder()
+                .rank(rank + 1)
+                .id(entry.id())
+                .score(entry.score())
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+-- 블랙리스트 조회 키를 토큰 원문(1024자) 대신 jti 로
+-- jti 가 없는 이전 토큰은 SHA-256(토큰) hex 를 저장
+ALTER TABLE blacklisted_tokens ADD jti VARCHAR2(64);
+CREATE INDEX idx_blk_tok_jti ON blacklisted_tokens(jti);
+
+-- 기존 행 백필: JwtTokenProvider.tokenHashKey 와 같은 소문자 hex (배포 전 로그아웃한 토큰도 계속 차단)
+UPDATE blacklisted_tokens
+   SET jti = LOWER(RAWTOHEX(STANDARD_HASH(token, 'SHA256')))
+ WHERE jti IS NULL;
+COMMIT;
+
+-- 폴링(created_at 이후 추가분) / 기동 시 적재(만료 전) 용
+CREATE INDEX idx_blk_tok_created ON blacklisted_tokens(created_at);
+CREATE INDEX idx_blk_tok_expires ON blacklisted_tokens(expires_at);
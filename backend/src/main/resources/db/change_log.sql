@@ -0,0 +1,20 @@
+-- 고객별 변경 로그 (GET /api/sync?since= 델타 동기화)
+CREATE TABLE sync_cursor (
+    customer_id  NUMBER  PRIMARY KEY,
+    last_seq     NUMBER  NOT NULL       -- 마지막으로 발급한 change_log.seq
+);
+
+CREATE TABLE change_log (
+    idx          NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id  NUMBER          NOT NULL,
+    seq          NUMBER          NOT NULL,  -- 고객별 증가 번호 (클라이언트 커서)
+    entity       VARCHAR2(20)    NOT NULL,  -- diet, body, goal, profile, favorite
+    op           VARCHAR2(10)    NOT NULL,  -- add, update, delete
+    ref_key      VARCHAR2(50),              -- 식단은 날짜, 나머지는 행 idx
+    payload      VARCHAR2(4000),            -- 변경 내용 JSON
+    created_at   TIMESTAMP       NOT NULL,
+    CONSTRAINT uk_change_log_customer_seq UNIQUE (customer_id, seq)
+);
+
+-- 보관 기간(sync.change-log.retention-days) 지난 로그 삭제용
+CREATE INDEX idx_change_log_created ON change_log(created_at);
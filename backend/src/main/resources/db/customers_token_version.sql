@@ -0,0 +1,2 @@
+-- JWT ver 클레임과 비교하는 사용자 토큰 버전 (비밀번호 변경 시 +1 → 이전 토큰 무효)
+ALTER TABLE customers ADD token_version NUMBER(10) DEFAULT 0;
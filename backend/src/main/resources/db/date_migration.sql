@@ -0,0 +1,46 @@
+-- RECORD/BODY/GOAL 날짜 컬럼 LocalDate/LocalDateTime 전환 마이그레이션
+-- RECORD.record_date 는 날짜만(시각 00:00:00) 저장하고 고객별 하루 1행을 유지합니다.
+-- 회원가입/프로필 수정 시 시각이 포함된 채로 생성된 RECORD 행을 같은 날짜 행과 합칩니다.
+
+-- 1) 유니크 제약을 잠시 해제하고 날짜만 남김
+ALTER TABLE record DROP CONSTRAINT uk_record_customer_date;
+UPDATE record SET record_date = TRUNC(record_date) WHERE record_date <> TRUNC(record_date);
+
+-- 2) 같은 날짜 행 합치기: 칼로리는 합산, 목표는 값이 있는 가장 최근 행 기준으로 가장 작은 idx 행에 모음
+MERGE INTO record r
+USING (
+    SELECT MIN(idx) AS keep_idx,
+           SUM(NVL(caloriesm, 0)) AS m,
+           SUM(NVL(caloriesl, 0)) AS l,
+           SUM(NVL(caloriesd, 0)) AS d,
+           MAX(target_weight) KEEP (DENSE_RANK LAST ORDER BY CASE WHEN target_weight IS NULL THEN 0 ELSE 1 END, idx) AS tw,
+           MAX(target_calories) KEEP (DENSE_RANK LAST ORDER BY CASE WHEN target_calories IS NULL THEN 0 ELSE 1 END, idx) AS tc
+      FROM record
+     GROUP BY customer_id, record_date
+    HAVING COUNT(*) > 1
+) dup
+ON (r.idx = dup.keep_idx)
+WHEN MATCHED THEN UPDATE SET r.caloriesm = dup.m, r.caloriesl = dup.l, r.caloriesd = dup.d,
+                             r.target_weight = dup.tw, r.target_calories = dup.tc;
+
+UPDATE meal_item mi
+   SET mi.record_id = (
+        SELECT MIN(r2.idx) FROM record r1
+          JOIN record r2 ON r2.customer_id = r1.customer_id AND r2.record_date = r1.record_date
+         WHERE r1.idx = mi.record_id)
+ WHERE mi.record_id NOT IN (SELECT MIN(idx) FROM record GROUP BY customer_id, record_date);
+
+DELETE FROM record
+ WHERE idx NOT IN (SELECT MIN(idx) FROM record GROUP BY customer_id, record_date);
+
+-- 3) 유니크 제약 복구 (= (customer_id, record_date) 인덱스)
+ALTER TABLE record ADD CONSTRAINT uk_record_customer_date UNIQUE (customer_id, record_date);
+
+-- 4) BODY/GOAL 은 측정 시각까지 저장(LocalDateTime)하고 고객별 최신순 조회용 복합 인덱스 추가
+CREATE INDEX idx_body_customer_date ON body(customer_id, record_date);
+CREATE INDEX idx_goal_customer_date ON goal(customer_id, record_date);
+
+-- 5) 집계 테이블은 비워 두면 다음 기동 시 다시 채워짐
+DELETE FROM nutrition_rollup;
+
+commit;
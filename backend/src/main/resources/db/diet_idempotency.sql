@@ -0,0 +1,11 @@
+-- 식단 일괄 업로드 idempotency key 저장소 (이미 적용한 키는 다시 적용하지 않음)
+CREATE TABLE diet_idempotency (
+    idx          NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id  NUMBER          NOT NULL,
+    key_hash     VARCHAR2(32)    NOT NULL,  -- SHA-256(키) 앞 16바이트 hex
+    created_at   TIMESTAMP       NOT NULL,
+    CONSTRAINT uk_diet_idem_customer_key UNIQUE (customer_id, key_hash)
+);
+
+-- 보관 기간(diet.idempotency.ttl-days) 지난 키 삭제용
+CREATE INDEX idx_diet_idem_created ON diet_idempotency(created_at);
@@ -0,0 +1,15 @@
+-- Gemini 토큰 사용량 (엔드포인트/사용자별 증분 기록)
+-- GeminiUsageService 가 메모리에 모은 값을 주기적으로 배치 INSERT 합니다.
+CREATE TABLE gemini_usage (
+    idx               NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    usage_date        DATE            NOT NULL,
+    user_key          VARCHAR2(100)   NOT NULL,
+    endpoint          VARCHAR2(20)    NOT NULL,
+    calls             NUMBER(19)      NOT NULL,
+    prompt_tokens     NUMBER(19)      NOT NULL,
+    candidates_tokens NUMBER(19)      NOT NULL,
+    total_tokens      NUMBER(19)      NOT NULL,
+    flushed_at        TIMESTAMP       NOT NULL
+);
+
+CREATE INDEX idx_gemini_usage_date_user ON gemini_usage(usage_date, user_key);
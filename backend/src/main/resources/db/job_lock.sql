@@ -0,0 +1,6 @@
+-- 예약 작업 잠금 (여러 서버 중 한 곳에서만 실행)
+CREATE TABLE job_lock (
+    name          VARCHAR2(64)    PRIMARY KEY,
+    locked_until  TIMESTAMP       NOT NULL,
+    locked_by     VARCHAR2(100)   NOT NULL
+);
@@ -0,0 +1,12 @@
+-- 기간(일/주/월) 리더보드 최종 순위 보관 (기간이 끝날 때 WindowedLeaderboardService 가 기록)
+CREATE TABLE leaderboard_archive (
+    idx           NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    period_type   VARCHAR2(1)     NOT NULL,  -- D(일) / W(ISO 주) / M(월)
+    period_start  DATE            NOT NULL,
+    rank_no       NUMBER(10)      NOT NULL,
+    customer_id   NUMBER          NOT NULL,
+    login_id      VARCHAR2(100)   NOT NULL,
+    score         NUMBER          NOT NULL,
+    archived_at   TIMESTAMP       NOT NULL,
+    CONSTRAINT uk_lb_archive_period_customer UNIQUE (period_type, period_start, customer_id)
+);
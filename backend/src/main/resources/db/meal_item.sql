@@ -0,0 +1,14 @@
+-- 식사 항목 테이블 (RECORD.meal_details JSON 을 행 단위로 분리)
+CREATE TABLE meal_item (
+    idx        NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    record_id  NUMBER          NOT NULL,
+    meal_type  VARCHAR2(10)    NOT NULL,  -- morning / lunch / dinner
+    food       VARCHAR2(200),
+    calories   NUMBER(10),
+    eaten_at   NUMBER(19),                -- epoch millis
+    FOREIGN KEY (record_id) REFERENCES record(idx) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_meal_item_record ON meal_item(record_id, idx);
+
+-- 기존 meal_details 는 애플리케이션 기동 시 MealItemMigration 이 한 번 옮기고 NULL 로 비웁니다.
@@ -0,0 +1,18 @@
+-- 사용자별 일/주(ISO)/월 영양 집계 테이블
+CREATE TABLE nutrition_rollup (
+    idx           NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id   NUMBER          NOT NULL,
+    period_type   VARCHAR2(1)     NOT NULL,  -- D(일) / W(ISO 주, 월요일 시작) / M(월)
+    period_start  DATE            NOT NULL,
+    calories_m    NUMBER(19)      NOT NULL,
+    calories_l    NUMBER(19)      NOT NULL,
+    calories_d    NUMBER(19)      NOT NULL,
+    item_count    NUMBER(19)      NOT NULL,
+    day_count     NUMBER(19)      NOT NULL,
+    target_total  NUMBER(19)      NOT NULL,
+    updated_at    TIMESTAMP       NOT NULL,
+    CONSTRAINT uk_rollup_customer_period UNIQUE (customer_id, period_type, period_start),
+    FOREIGN KEY (customer_id) REFERENCES customers(idx) ON DELETE CASCADE
+);
+
+-- 기존 RECORD 로 다시 채우기: 앱 기동 시 테이블이 비어 있으면 NutritionRollupService.backfill() 이 실행됩니다.
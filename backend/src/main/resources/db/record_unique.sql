@@ -0,0 +1,33 @@
+-- RECORD 고객별 하루 1행 유니크 제약 추가
+-- 기존에 같은 (customer_id, record_date) 로 중복 생성된 행이 있으면 먼저 합친 뒤 제약을 추가합니다.
+
+-- 1) 중복 행의 칼로리를 가장 작은 idx 행으로 합산
+MERGE INTO record r
+USING (
+    SELECT MIN(idx) AS keep_idx,
+           SUM(NVL(caloriesm, 0)) AS m,
+           SUM(NVL(caloriesl, 0)) AS l,
+           SUM(NVL(caloriesd, 0)) AS d
+      FROM record
+     GROUP BY customer_id, record_date
+    HAVING COUNT(*) > 1
+) dup
+ON (r.idx = dup.keep_idx)
+WHEN MATCHED THEN UPDATE SET r.caloriesm = dup.m, r.caloriesl = dup.l, r.caloriesd = dup.d;
+
+-- 2) 식사 항목을 남길 행으로 옮김
+UPDATE meal_item mi
+   SET mi.record_id = (
+        SELECT MIN(r2.idx) FROM record r1
+          JOIN record r2 ON r2.customer_id = r1.customer_id AND r2.record_date = r1.record_date
+         WHERE r1.idx = mi.record_id)
+ WHERE mi.record_id NOT IN (SELECT MIN(idx) FROM record GROUP BY customer_id, record_date);
+
+-- 3) 나머지 중복 행 삭제
+DELETE FROM record
+ WHERE idx NOT IN (SELECT MIN(idx) FROM record GROUP BY customer_id, record_date);
+
+-- 4) 유니크 제약 추가
+ALTER TABLE record ADD CONSTRAINT uk_record_customer_date UNIQUE (customer_id, record_date);
+
+commit;
@@ -0,0 +1,18 @@
+-- refresh 토큰 (SHA-256 hex 만 저장, family 단위 회전/폐기)
+CREATE TABLE refresh_token (
+    idx            NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash     VARCHAR2(64)    NOT NULL,
+    family_id      VARCHAR2(36)    NOT NULL,
+    customer_id    NUMBER          NOT NULL,
+    login_id       VARCHAR2(100)   NOT NULL,
+    token_version  NUMBER(10)      NOT NULL,
+    expires_at     TIMESTAMP       NOT NULL,
+    created_at     TIMESTAMP       NOT NULL,
+    used_at        TIMESTAMP,
+    revoked_at     TIMESTAMP,
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX idx_refresh_token_family ON refresh_token(family_id);
+CREATE INDEX idx_refresh_token_customer ON refresh_token(customer_id);
+CREATE INDEX idx_refresh_token_expires ON refresh_token(expires_at);
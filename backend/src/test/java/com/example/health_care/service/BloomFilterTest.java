@@ -0,0 +1,35 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+// 넣은 키는 항상 true, 넣지 않은 키의 오탐률은 설정값 근처인지 확인
+class BloomFilterTest {
+
+    @Test
+    void noFalseNegativesAndBoundedFalsePositives() {
+        int n = 10_000;
+        BloomFilter filter = new BloomFilter(n, 0.01);
+        String[] inserted = new String[n];
+        for (int i = 0; i < n; i++) {
+            inserted[i] = UUID.randomUUID().toString();
+            filter.put(inserted[i]);
+        }
+
+        for (String key : inserted) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.health_care.dto.DietRequest;
+import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.repository.CustomersRepository;
+
+// 같은 날짜에 동시에 식단을 저장해도 칼로리 증가분이 사라지지 않고 RECORD 가 1행만 생기는지 확인
+@SpringBootTest
+class DietServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 5;
+    private static final long CALORIES = 100L;
+    private static final String DATE = "2000-01-01";
+
+    @Autowired
+    DietService dietService;
+
+    @Autowired
+    CustomersRepository customersRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private CustomersEntity customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customersRepository.save(CustomersEntity.builder()
+                .id("diet-concurrency-" + System.nanoTime())
+                .password("test")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM meal_item WHERE record_id IN (SELECT idx FROM record WHERE customer_id = ?)",
+                customer.getIdx());
+        jdbcTemplate.update("DELETE FROM record WHERE customer_id = ?", customer.getIdx());
+        jdbcTemplate.update("DELETE FROM nutrition_rollup WHERE customer_id = ?", customer.getIdx());
+        jdbcTemplate.update("DELETE FROM change_log WHERE customer_id = ?", customer.getIdx());
+        jdbcTemplate.update("DELETE FROM sync_cursor WHERE customer_id = ?", customer.getIdx());
+        customersRepository.delete(customer);
+    }
+
+    @Test
+    void concurrentSavesDoNotLoseIncrements() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        dietService.saveDietRecord(customer.getIdx(), DietRequest.builder()
+                                .date(DATE)
+                                .type("morning")
+                                .food("테스트 음식")
+                                .calories(CALORIES)
+                                .build());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int saves = THREADS * SAVES_PER_THREAD;
+        Long records = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM record WHERE customer_id = ?", Long.class,
+                customer.getIdx());
+        Long morning = jdbcTemplate.queryForObject("SELECT SUM(caloriesm) FROM record WHERE customer_id = ?",
+                Long.class, customer.getIdx());
+        Long items = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM meal_item WHERE record_id IN (SELECT idx FROM record WHERE customer_id = ?)",
+                Long.class, customer.getIdx());
+
+        assertThat(records).isEqualTo(1L);
+        assertThat(morning).isEqualTo(saves * CALORIES);
+        assertThat(items).isEqualTo((long) saves);
+
+        // 일/주/월 집계도 같은 값으로 누적
+        List<Long> rollups = jdbcTemplate.queryForList(
+                "SELECT calories_m FROM nutrition_rollup WHERE customer_id = ? ORDER BY period_type", Long.class,
+                customer.getIdx());
+        assertThat(rollups).containsOnly(saves * CALORIES).hasSize(3);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.health_care.dto.DietRecordResponse;
+import com.example.health_care.dto.DietRequest;
+import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.repository.CustomersRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 식단 조회(GET)가 SQL 1번만 실행하고 아무것도 저장하지 않는지 확인
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DietServiceReadTest {
+
+    @Autowired
+    DietService dietService;
+
+    @Autowired
+    CustomersRepository customersRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private CustomersEntity customer;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        customer = customersRepository.save(CustomersEntity.builder()
+                .id("diet-read-" + System.nanoTime())
+                .password("test")
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM meal_item WHERE record_id IN (SELECT idx FROM record WHERE customer_id = ?)",
+                customer.getIdx());
+        jdbcTemplate.update("DELETE FROM record WHERE customer_id = ?", customer.getIdx());
+        jdbcTemplate.update("DELETE FROM nutrition_rollup WHERE customer_id = ?", customer.getIdx());
+        jdbcTemplate.update("DELETE FROM change_log WHERE customer_id = ?", customer.getIdx());
+        jdbcTemplate.update("DELETE FROM sync_cursor WHERE customer_id = ?", customer.getIdx());
+        customersRepository.delete(customer);
+    }
+
+    @Test
+    void getIssuesSingleStatement() {
+        dietService.saveDietRecord(customer.getIdx(), DietRequest.builder()
+                .date("2000-01-02").type("morning").food("사과").calories(95L).build());
+        dietService.saveDietRecord(customer.getIdx(), DietRequest.builder()
+                .date("2000-01-02").type("dinner").food("밥").calories(300L).build());
+
+        statistics.clear();
+        DietRecordResponse response = dietService.getDietRecord(customer.getId(), "2000-01-02");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+        assertThat(response.getCaloriesM()).isEqualTo(95L);
+        assertThat(response.getCaloriesD()).isEqualTo(300L);
+        assertThat(response.getMealDetails()).contains("사과").contains("밥");
+    }
+
+    @Test
+    void missingDayReturnsZerosWithoutWriting() {
+        statistics.clear();
+        DietRecordResponse response = dietService.getDietRecord(customer.getId(), "2000-01-03");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+        assertThat(response.getIdx()).isNull();
+        assertThat(response.getCaloriesM()).isZero();
+        assertThat(response.getCaloriesL()).isZero();
+        assertThat(response.getCaloriesD()).isZero();
+        assertThat(response.getMealDetails()).isEqualTo("{}");
+
+        Long records = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM record WHERE customer_id = ?", Long.class,
+                customer.getIdx());
+        assertThat(records).isZero();
+    }
+}
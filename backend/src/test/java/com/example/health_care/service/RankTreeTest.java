@@ -0,0 +1,50 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+// RankTree 의 순위/k번째/구간 조회를 정렬된 TreeSet 결과와 비교
+class RankTreeTest {
+
+    @Test
+    void matchesSortedSetUnderRandomUpdates() {
+        Comparator<Integer> order = Comparator.reverseOrder();
+        RankTree<Integer> tree = new RankTree<>(order);
+        TreeSet<Integer> expected = new TreeSet<>(order);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                assertThat(tree.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(tree.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertThat(tree.size()).isEqualTo(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(tree.get(i)).isEqualTo(sorted.get(i));
+            assertThat(tree.rank(sorted.get(i))).isEqualTo(i);
+        }
+        assertThat(tree.slice(10, 5)).isEqualTo(sorted.subList(10, 15));
+        assertThat(tree.slice(sorted.size() - 2, 5)).isEqualTo(sorted.subList(sorted.size() - 2, sorted.size()));
+    }
+
+    @Test
+    void emptyTree() {
+        RankTree<Integer> tree = new RankTree<>(Comparator.naturalOrder());
+        assertThat(tree.size()).isZero();
+        assertThat(tree.slice(0, 10)).isEmpty();
+        assertThat(tree.remove(1)).isFalse();
+        assertThat(tree.rank(1)).isZero();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.health_care.dto.CustomersProfileDTO;
+import com.example.health_care.entity.BodyEntity;
+import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.entity.Gender;
+import com.example.health_care.repository.BodyRepository;
+import com.example.health_care.repository.CustomersRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 랭킹 조회가 고객 수와 상관없이 SQL 1번으로 끝나고, 고객마다 최신 BODY 목표를 가져오는지 확인
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RankingServiceTest {
+
+    @Autowired
+    RankingService rankingService;
+
+    @Autowired
+    CustomersRepository customersRepository;
+
+    @Autowired
+    BodyRepository bodyRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final List<CustomersEntity> customers = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            CustomersEntity customer = customersRepository.save(CustomersEntity.builder()
+                    .id("ranking-" + i + "-" + System.nanoTime())
+                    .password("test")
+                    .weight(70.0 + i)
+                    .gender(Gender.F)
+                    .build());
+            customers.add(customer);
+            if (i == 0) {
+                continue; // BODY 가 없는 고객
+            }
+            bodyRepository.save(BodyEntity.builder().customer(customer)
+                    .targetWeight(60.0).targetCalories(1800).recordDate(LocalDateTime.now()).build());
+            bodyRepository.save(BodyEntity.builder().customer(customer)
+                    .targetWeight(55.0 + i).targetCalories(1500 + i).recordDate(LocalDateTime.now()).build());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (CustomersEntity customer : customers) {
+            jdbcTemplate.update("DELETE FROM body WHERE customer_id = ?", customer.getIdx());
+            customersRepository.delete(customer);
+        }
+    }
+
+    @Test
+    void ranksWithSingleStatement() {
+        statistics.clear();
+        Map<String, CustomersProfileDTO> byId = rankingService.getAllCustomersProfile().stream()
+                .collect(Collectors.toMap(CustomersProfileDTO::getId, Function.identity()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+
+        CustomersProfileDTO noBody = byId.get(customers.get(0).getId());
+        assertThat(noBody.getWeight()).isEqualTo(70.0);
+        assertThat(noBody.getGender()).isEqualTo(Gender.F);
+        assertThat(noBody.getTargetWeight()).isNull();
+        assertThat(noBody.getTargetCalories()).isNull();
+
+        // 최신 BODY(가장 큰 idx) 의 목표
+        for (int i = 1; i < 3; i++) {
+            CustomersProfileDTO dto = byId.get(customers.get(i).getId());
+            assertThat(dto.getTargetWeight()).isEqualTo(55.0 + i);
+            assertThat(dto.getTargetCalories()).isEqualTo(1500 + i);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.example.health_care.controller.AuthController;
+import com.example.health_care.dto.RefreshTokenRequest;
+import com.example.health_care.entity.CustomersEntity;
+import com.example.health_care.repository.CustomersRepository;
+import com.example.health_care.security.CustomerPrincipal;
+
+// refresh 토큰 회전/재사용 감지/폐기 확인 (실제 DB 사용, 테스트 고객과 토큰은 끝나고 삭제)
+@SpringBootTest
+class RefreshTokenServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    CustomersService customersService;
+
+    @Autowired
+    AuthController authController;
+
+    @Autowired
+    CustomersRepository customersRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private CustomersEntity customer;
+    private CustomerPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        customer = customersRepository.save(CustomersEntity.builder()
+                .id("refresh-token-" + System.nanoTime())
+                .password("test")
+                .tokenVersion(0)
+                .build());
+        principal = new CustomerPrincipal(customer.getId(), customer.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), customer.getIdx(), 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refresh_token WHERE customer_id = ?", customer.getIdx());
+        customersRepository.deleteById(customer.getIdx());
+    }
+
+    @Test
+    void rotateSucceedsOnce() {
+        String issued = refreshTokenService.issue(principal);
+
+        RefreshTokenService.Rotated rotated = refreshTokenService.rotate(issued);
+
+        assertThat(rotated.refreshToken()).isNotEqualTo(issued);
+        assertThat(rotated.loginId()).isEqualTo(customer.getId());
+        assertThat(rotated.customerIdx()).isEqualTo(customer.getIdx());
+        assertThat(rotated.tokenVersion()).isZero();
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void concurrentRotationsOfSameTokenSucceedOnce() throws Exception {
+        String issued = refreshTokenService.issue(principal);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        refreshTokenService.rotate(issued);
+                        return true;
+                    } catch (BadCredentialsException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get()) {
+                    succeeded++;
+                }
+            }
+            assertThat(succeeded).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void replayedTokenRevokesFamily() {
+        String issued = refreshTokenService.issue(principal);
+        String next = refreshTokenService.rotate(issued).refreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued))
+                .isInstanceOf(BadCredentialsException.class);
+
+        // 폐기가 예외와 함께 롤백되지 않고 커밋되어, 정상 회전으로 받은 토큰도 더 이상 못 씀
+        Long active = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_token WHERE customer_id = ? AND revoked_at IS NULL", Long.class,
+                customer.getIdx());
+        assertThat(active).isZero();
+        assertThatThrownBy(() -> refreshTokenService.rotate(next))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void revokedTokenIsRejectedWith401() {
+        String issued = refreshTokenService.issue(principal);
+        refreshTokenService.revokeFamily(issued);
+
+        assertUnauthorized(authController.refresh(new RefreshTokenRequest(issued)));
+    }
+
+    @Test
+    void expiredTokenIsRejectedWith401() {
+        String issued = refreshTokenService.issue(principal);
+        jdbcTemplate.update("UPDATE refresh_token SET expires_at = ? WHERE customer_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), customer.getIdx());
+
+        assertUnauthorized(authController.refresh(new RefreshTokenRequest(issued)));
+    }
+
+    @Test
+    void passwordChangeRevokesAllFamilies() {
+        String first = refreshTokenService.issue(principal);
+        String second = refreshTokenService.issue(principal);
+
+        customersService.updatePassword(customer.getId(), "changed-password-1");
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    private static void assertUnauthorized(ResponseEntity<?> response) {
+        assertThat(response.getStatusCode().value()).isEqualTo(401);
+        assertThat(response.getBody()).isInstanceOfSatisfying(Map.class,
+                body -> assertThat(body.get("error")).isEqualTo("invalid_refresh_token"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.health_care.repository.CustomersRepository;
+import com.sun.net.httpserver.HttpServer;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+// 가상 스레드에서 JDBC(Hikari + ojdbc, JPA) 와 HTTP 클라이언트(RestTemplate) 를 쓸 때 carrier 스레드를 붙잡지 않는지 확인
+// 커넥션 풀보다 많은 작업을 동시에 돌려 풀 대기/소켓 읽기 중 park 가 일어나게 하고 JFR jdk.VirtualThreadPinned 이벤트를 수집
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadPinningTest {
+
+    private static final int TASKS = 200;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CustomersRepository customersRepository;
+
+    @Autowired
+    RestTemplate restTemplate;
+
+    @Test
+    void jdbcAndHttpClientDoNotPinCarrierThreads() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+
+        List<String> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream();
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.add(topFrames(event)));
+            recording.startAsync();
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                futures.add(executor.submit(() -> {
+                    jdbcTemplate.queryForObject("SELECT 1 FROM dual", Integer.class);
+                    customersRepository.count();
+                    return restTemplate.getForObject(url, String.class);
+                }));
+            }
+            for (Future<?> future : futures) {
+                assertThat(future.get()).isEqualTo("ok");
+            }
+            recording.stop();
+        } finally {
+            server.stop(0);
+        }
+
+        assertThat(pinned).isEmpty();
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(no stack trace)";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(8)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .collect(Collectors.joining(" <- "));
+    }
+}
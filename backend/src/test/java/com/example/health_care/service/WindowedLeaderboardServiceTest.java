@@ -0,0 +1,267 @@
+package com.example.health_care.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.health_care.dto.LeaderboardAroundResponse;
+import com.example.health_care.dto.LeaderboardEntryDTO;
+import com.example.health_care.dto.WindowLeaderboardResponse;
+import com.example.health_care.entity.ChangeLogEntity;
+import com.example.health_care.service.WindowedLeaderboardService.Window;
+
+// 기간 시작일 계산, 점수 공식, 보드 갱신(rotate/put), 이미 보관된 기간은 다시 기록하지 않는지 확인
+// DB 대신 점수 조회/보관 테이블을 메모리로 흉내 내는 JdbcTemplate 사용
+class WindowedLeaderboardServiceTest {
+
+    @Test
+    void windowStartAndEnd() {
+        LocalDate thursday = LocalDate.of(2024, 5, 16);
+        assertThat(Window.DAY.start(thursday)).isEqualTo(thursday);
+        assertThat(Window.WEEK.start(thursday)).isEqualTo(LocalDate.of(2024, 5, 13));
+        assertThat(Window.WEEK.start(LocalDate.of(2024, 5, 19))).isEqualTo(LocalDate.of(2024, 5, 13)); // 일요일
+        assertThat(Window.WEEK.start(LocalDate.of(2024, 5, 13))).isEqualTo(LocalDate.of(2024, 5, 13)); // 월요일
+        assertThat(Window.MONTH.start(thursday)).isEqualTo(LocalDate.of(2024, 5, 1));
+
+        assertThat(Window.DAY.end(thursday)).isEqualTo(LocalDate.of(2024, 5, 17));
+        assertThat(Window.WEEK.end(LocalDate.of(2024, 5, 13))).isEqualTo(LocalDate.of(2024, 5, 20));
+        assertThat(Window.MONTH.end(LocalDate.of(2024, 2, 1))).isEqualTo(LocalDate.of(2024, 3, 1));
+
+        assertThat(Window.of("WEEK")).isEqualTo(Window.WEEK);
+        assertThatThrownBy(() -> Window.of("year")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void score() {
+        // 준수도: 목표 대비 10% 차이, 기록한 날 비율 1 / 0.5
+        assertThat(WindowedLeaderboardService.score(1800, 2000, 7, 7, null, null, null)).isEqualTo(90.0);
+        assertThat(WindowedLeaderboardService.score(1800, 2000, 3, 6, null, null, null)).isEqualTo(45.0);
+        assertThat(WindowedLeaderboardService.score(5000, 2000, 7, 7, null, null, null)).isEqualTo(0.0);
+        // 체중: 목표 방향 2kg = 20점, 반대 방향은 감점, ±30 상한
+        assertThat(WindowedLeaderboardService.score(0, 0, 0, 1, 80.0, 78.0, 70.0)).isEqualTo(20.0);
+        assertThat(WindowedLeaderboardService.score(0, 0, 0, 1, 80.0, 82.0, 70.0)).isEqualTo(-20.0);
+        assertThat(WindowedLeaderboardService.score(0, 0, 0, 1, 80.0, 70.0, 60.0)).isEqualTo(30.0);
+        assertThat(WindowedLeaderboardService.score(0, 0, 0, 1, 60.0, 63.0, 70.0)).isEqualTo(30.0); // 증량 목표
+        assertThat(WindowedLeaderboardService.score(0, 0, 0, 1, 70.0, 68.0, 70.0)).isEqualTo(0.0); // 이미 목표
+    }
+
+    @Test
+    void rotateBuildsBoardsAndArchivesPreviousPeriod() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        jdbc.customer(1L, "a", 79.0); // 10점
+        jdbc.customer(2L, "b", 78.0); // 20점
+        jdbc.customer(3L, "c", 79.0); // 10점 (동점은 idx 순)
+        WindowedLeaderboardService service = service(jdbc, 10);
+
+        service.rotate();
+
+        WindowLeaderboardResponse week = service.getTop("week", "current", 10);
+        assertThat(week.getTotal()).isEqualTo(3);
+        assertThat(week.getEntries()).extracting(LeaderboardEntryDTO::getId).containsExactly("b", "a", "c");
+        assertThat(week.getEntries()).extracting(LeaderboardEntryDTO::getRank).containsExactly(1, 2, 3);
+
+        // 직전 기간은 세 기간 모두 한 번씩 보관
+        assertThat(jdbc.archiveWrites).isEqualTo(3);
+        WindowLeaderboardResponse previousDay = service.getTop("day", "previous", 10);
+        assertThat(previousDay.getEntries()).extracting(LeaderboardEntryDTO::getId).containsExactly("b", "a", "c");
+
+        LeaderboardAroundResponse around = service.getAround(3L, "month", "previous", 1);
+        assertThat(around.getMe().getRank()).isEqualTo(3);
+        assertThat(around.getNeighbors()).extracting(LeaderboardEntryDTO::getId).containsExactly("a", "c");
+
+        // 두 번째 rotate 는 보관된 결과를 읽기만 함
+        service.rotate();
+        assertThat(jdbc.archiveWrites).isEqualTo(3);
+    }
+
+    @Test
+    void rotateSkipsAlreadyArchivedPeriod() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        jdbc.customer(1L, "a", 78.0);
+        LocalDate today = LocalDate.now();
+        for (Window window : Window.values()) {
+            LocalDate previousStart = window.start(window.start(today).minusDays(1));
+            jdbc.archived(window, previousStart, new Object[] { 1, "old-winner", 55.5, 9L });
+        }
+        WindowedLeaderboardService service = service(jdbc, 10);
+
+        service.rotate();
+
+        assertThat(jdbc.archiveWrites).isZero();
+        WindowLeaderboardResponse previousWeek = service.getTop("week", "previous", 10);
+        assertThat(previousWeek.getEntries()).extracting(LeaderboardEntryDTO::getId).containsExactly("old-winner");
+        assertThat(service.getAround(9L, "week", "previous", 5).getMe().getScore()).isEqualTo(55.5);
+        assertThat(service.getAround(1L, "week", "previous", 5).getMe()).isNull();
+        assertThat(service.getTop("week", "current", 10).getEntries()).extracting(LeaderboardEntryDTO::getId)
+                .containsExactly("a");
+    }
+
+    @Test
+    void putKeepsOnlyTopEntriesAndReplacesChangedScore() {
+        FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+        jdbc.customer(1L, "a", 79.0); // 10점
+        jdbc.customer(2L, "b", 78.0); // 20점
+        jdbc.customer(3L, "c", 80.0); // 0점 → max-entries 2 라 보관되지 않음
+        WindowedLeaderboardService service = service(jdbc, 2);
+        service.rotate();
+
+        assertThat(service.getTop("week", "current", 10).getEntries()).extracting(LeaderboardEntryDTO::getId)
+                .containsExactly("b", "a");
+        assertThat(service.getAround(3L, "week", "current", 1).getMe()).isNull();
+
+        // c 가 3kg 감량 → 30점으로 1위, 꼴찌(a)는 밀려남
+        jdbc.customer(3L, "c", 77.0);
+        service.onCustomerDataChanged(new CustomerDataChangedEvent(3L, Set.of(ChangeLogEntity.BODY)));
+
+        assertThat(service.getTop("week", "current", 10).getEntries()).extracting(LeaderboardEntryDTO::getId)
+                .containsExactly("c", "b");
+        LeaderboardAroundResponse mine = service.getAround(3L, "week", "current", 1);
+        assertThat(mine.getMe().getRank()).isEqualTo(1);
+        assertThat(mine.getMe().getScore()).isEqualTo(30.0);
+
+        // 활동이 사라지면 보드에서 제거
+        jdbc.remove(2L);
+        service.onCustomerDataChanged(new CustomerDataChangedEvent(2L, Set.of(ChangeLogEntity.DIET)));
+        assertThat(service.getTop("week", "current", 10).getEntries()).extracting(LeaderboardEntryDTO::getId)
+                .containsExactly("c");
+    }
+
+    @Test
+    void unknownScopeIsRejected() {
+        WindowedLeaderboardService service = service(new FakeJdbcTemplate(), 10);
+        assertThatThrownBy(() -> service.getTop("week", "next", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getAround(1L, "week", "last", 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.getTop("week", "PREVIOUS", 10).getScope()).isEqualTo(WindowedLeaderboardService.PREVIOUS);
+    }
+
+    private static WindowedLeaderboardService service(FakeJdbcTemplate jdbc, int maxEntries) {
+        JobLock jobLock = new JobLock(null) {
+            @Override
+            public boolean tryLock(String name, Duration lease) {
+                return true;
+            }
+
+            @Override
+            public void unlock(String name) {
+            }
+        };
+        return new WindowedLeaderboardService(jdbc, new TransactionTemplate(new NoopTransactionManager()), jobLock,
+                maxEntries);
+    }
+
+    // 점수 조회 SQL 결과(고객별 1행)와 leaderboard_archive 를 메모리로 흉내
+    // 모든 고객: 식단 없음, 기준 체중 80kg, 목표 체중 70kg (점수 = 감량 kg × 10)
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        private final Map<Long, Object[]> scoreRows = new TreeMap<>();
+        private final Map<String, List<Object[]>> archive = new HashMap<>();
+        private int archiveWrites;
+
+        void customer(Long idx, String id, Double lastWeight) {
+            scoreRows.put(idx, new Object[] { idx, id, 0L, 0L, 0L, 80.0, lastWeight, 70.0 });
+        }
+
+        void remove(Long idx) {
+            scoreRows.remove(idx);
+        }
+
+        // row = { rank_no, login_id, score, customer_id }
+        void archived(Window window, LocalDate start, Object[] row) {
+            archive.computeIfAbsent(key(window.name().substring(0, 1), Date.valueOf(start)),
+                    k -> new ArrayList<>()).add(row);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            List<Object[]> rows;
+            if (sql.contains("FROM leaderboard_archive")) {
+                rows = archive.getOrDefault(key(args[0], args[1]), List.of());
+            } else if (args.length > 5) { // 고객 1명 (period_type, start, ts, idx, ts, ts, idx, idx, idx)
+                Object[] row = scoreRows.get((Long) args[3]);
+                rows = row != null ? List.<Object[]>of(row) : List.of();
+            } else {
+                rows = new ArrayList<>(scoreRows.values());
+            }
+            List<T> result = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    result.add(rowMapper.mapRow(resultSet(rows.get(i)), i));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return result;
+        }
+
+        // (period_type, period_start, rank_no, customer_id, login_id, score, archived_at)
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            archiveWrites++;
+            for (Object[] row : batchArgs) {
+                archive.computeIfAbsent(key(row[0], row[1]), k -> new ArrayList<>())
+                        .add(new Object[] { row[2], row[4], row[5], row[3] });
+            }
+            return new int[batchArgs.size()];
+        }
+
+        private static String key(Object periodType, Object start) {
+            return periodType + "|" + start;
+        }
+
+        private static ResultSet resultSet(Object[] values) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                        Object value = values[(Integer) args[0] - 1];
+                        switch (method.getName()) {
+                            case "getLong":
+                                return ((Number) value).longValue();
+                            case "getInt":
+                                return ((Number) value).intValue();
+                            case "getDouble":
+                                return ((Number) value).doubleValue();
+                            case "getString":
+                            case "getObject":
+                                return value;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+
+    private static final class NoopTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -49,6 +49,8 @@ async function classifyImage(uri) {
 async function analyzePackaged(uri) {
   const base64 = await toBase64Async(uri)
   let result = await callBackendApi("packaged", base64, guessMime(uri))
+  // 일일 한도 초과로 서버가 분석을 생략한 경우 재호출하지 않음 (OCR/직접 입력으로 전환)
+  if (result?.degraded) return result
   if ((result?.output?.calories ?? 0) === 0 && (result?.panel?.net_weight_g ?? 0) === 0) {
     let ocrText = ""
     try {
@@ -90,6 +90,35 @@ function withAuthHeaders(customHeaders = {}) {
   return { ...customHeaders, ...auth }
 }
 
+// access 토큰 만료(401) 시 refresh 토큰으로 재발급하는 함수 (AuthContext 에서 등록, 성공하면 true)
+let REFRESH_HANDLER = null
+let refreshing = null
+
+export function setRefreshHandler(fn) {
+  REFRESH_HANDLER = fn
+}
+
+// 동시에 여러 요청이 401 을 받아도 재발급은 한 번만 (refresh 토큰은 한 번 쓰면 교체되므로)
+export function refreshAuth() {
+  if (!REFRESH_HANDLER) return Promise.resolve(false)
+  if (!refreshing) {
+    refreshing = Promise.resolve()
+      .then(() => REFRESH_HANDLER())
+      .catch(() => false)
+      .finally(() => { refreshing = null })
+  }
+  return refreshing
+}
+
+// 401 이면 재발급 후 한 번만 다시 보냄 (buildInit 은 새 토큰으로 헤더를 다시 만듦)
+async function send(url, buildInit) {
+  const res = await fetch(url, buildInit())
+  if (res.status === 401 && CURRENT_TOKEN && !/\/api\/auth\//.test(url) && (await refreshAuth())) {
+    return fetch(url, buildInit())
+  }
+  return res
+}
+
 const join = (base, path) =>
   `${String(base).replace(/\/+$/, '')}/${String(path).replace(/^\/+/, '')}`
 
@@ -98,12 +127,12 @@ export async function apiGet(path, init) {
   const ctrl = new AbortController()
   const to = setTimeout(() => ctrl.abort(), 20000)
   try {
-    const res = await fetch(url, {
+    const res = await send(url, () => ({
       ...(init || {}),
       method: 'GET',
       signal: ctrl.signal,
       headers: withAuthHeaders(init?.headers),
-    })
+    }))
     const text = await res.text()
     if (__DEV__) console.log('GET', url, '->', res.status, text)
     if (!res.ok) throw new Error(`HTTP ${res.status} ${text}`)
@@ -119,13 +148,13 @@ export async function apiPost(path, body, init) {
   const to = setTimeout(() => ctrl.abort(), 25000)
   try {
     const baseHeaders = { Accept: 'application/json', 'Content-Type': 'application/json' }
-    const res = await fetch(url, {
+    const res = await send(url, () => ({
       ...(init || {}),
       method: 'POST',
       headers: withAuthHeaders({ ...baseHeaders, ...(init?.headers || {}) }),
       body: JSON.stringify(body),
       signal: ctrl.signal,
-    })
+    }))
     const text = await res.text()
     if (__DEV__) console.log('POST', url, '->', res.status, text)
     if (!res.ok) throw new Error(`HTTP ${res.status} ${text}`)
@@ -140,13 +169,13 @@ export async function apiDelete(path, body, init) {
   const ctrl = new AbortController()
   const to = setTimeout(() => ctrl.abort(), 20000)
   try {
-    const res = await fetch(url, {
+    const res = await send(url, () => ({
       ...(init || {}),
       method: 'DELETE',
       headers: withAuthHeaders(init?.headers),
       body: JSON.stringify(body),
       signal: ctrl.signal,
-    })
+    }))
     const text = await res.text()
     if (__DEV__) console.log('DELETE', url, '->', res.status, text)
     if (!res.ok) throw new Error(`HTTP ${res.status} ${text}`)
@@ -2,8 +2,9 @@ import { createContext, useContext, useEffect, useState, useMemo } from 'react'
 import * as SecureStore from 'expo-secure-store'
 import AsyncStorage from '@react-native-async-storage/async-storage'
 import { decode as atob } from 'base-64'
-import { apiPost, setAuthToken, clearAuthToken } from '../config/api'
+import { apiPost, setAuthToken, clearAuthToken, setRefreshHandler } from '../config/api'
 import { useI18n } from '../i18n/I18nContext' // >>> [ADDED]
+import { clearDietQueue } from '../utils/dietQueue'
 
 const Ctx = createContext(null)
 export const useAuth = () => useContext(Ctx)
@@ -36,6 +37,47 @@ export default function AuthProvider({ children }) {
     try { await AsyncStorage.multiRemove(['token','authToken','accessToken','@auth/token']) } catch {}
   }
 
+  // 로그인/refresh 응답의 토큰 저장 (refresh 토큰은 한 번 쓰면 교체되므로 매번 덮어씀)
+  const saveTokens = async (res) => {
+    const token = `${res.tokenType} ${res.token}`
+    await SecureStore.setItemAsync('accessToken', token)
+    if (res.refreshToken) await SecureStore.setItemAsync('refreshToken', res.refreshToken)
+    setAuthToken(token)
+    return token
+  }
+
+  const clearSession = async () => {
+    try { await SecureStore.deleteItemAsync('accessToken') } catch {}
+    try { await SecureStore.deleteItemAsync('refreshToken') } catch {}
+    await wipeLegacyTokens()
+    try { await AsyncStorage.removeItem('last_user_id') } catch {}
+    clearAuthToken()
+    setUser(null)
+    setAuthed(false)
+    setNeedsGoalSetup(false)
+  }
+
+  // access 토큰 만료(401) 시 config/api 가 호출: 실패하면(refresh 만료/폐기) 로그아웃 상태로
+  useEffect(() => {
+    setRefreshHandler(async () => {
+      const refreshToken = await SecureStore.getItemAsync('refreshToken')
+      if (!refreshToken) {
+        // refresh 토큰 도입 전 로그인한 세션: 다시 로그인해야 함
+        await clearSession()
+        return false
+      }
+      try {
+        const res = await apiPost('/api/auth/refresh', { refreshToken })
+        await saveTokens(res)
+        return true
+      } catch (e) {
+        if (/HTTP 401/.test(String(e?.message || ''))) await clearSession()
+        return false
+      }
+    })
+    return () => setRefreshHandler(null)
+  }, [])
+
   useEffect(() => {
     let mounted = true
     ;(async () => {
@@ -67,10 +109,8 @@ export default function AuthProvider({ children }) {
   const login = async (id, password) => {
     try {
       const res = await apiPost('/api/auth/login', { id, password })
-      const token = `${res.tokenType} ${res.token}`
-      await SecureStore.setItemAsync('accessToken', token)
+      const token = await saveTokens(res)
       await wipeLegacyTokens()
-      setAuthToken(token)
       const userId = res.id ?? parseJwt(token).sub ?? id
       setUser({ id: userId })
       setAuthed(true)
@@ -88,14 +128,14 @@ export default function AuthProvider({ children }) {
   }
 
   const logout = async () => {
-    try { await apiPost('/api/auth/logout', {}) } catch {}
-    try { await SecureStore.deleteItemAsync('accessToken') } catch {}
-    await wipeLegacyTokens()
-    try { await AsyncStorage.removeItem('last_user_id') } catch {}
-    clearAuthToken()
-    setUser(null)
-    setAuthed(false)
-    setNeedsGoalSetup(false)
+    let refreshToken = null
+    try { refreshToken = await SecureStore.getItemAsync('refreshToken') } catch {}
+    try { await apiPost('/api/auth/logout', refreshToken ? { refreshToken } : {}) } catch {}
+    // 보내지 못한 식단 큐는 이 계정 것이므로 같이 삭제 (다음 계정 토큰으로 전송되지 않게)
+    let userId = user?.id
+    try { userId = userId || await AsyncStorage.getItem('last_user_id') } catch {}
+    await clearDietQueue(userId)
+    await clearSession()
   }
 
   const markGoalDone = async () => {
@@ -1,6 +1,7 @@
-import React, { useState, useLayoutEffect, useMemo, useCallback, useEffect } from 'react';
+import React, { useState, useLayoutEffect, useMemo, useCallback, useEffect, useRef } from 'react';
 import { View, Text, FlatList, StyleSheet, Pressable, SafeAreaView, Platform, ImageBackground } from 'react-native';
-import { apiPost, apiGet } from '../config/api';
+import { apiGet } from '../config/api';
+import { enqueueDietEntry, flushDietQueue } from '../utils/dietQueue';
 import { useNavigation, useFocusEffect } from '@react-navigation/native';
 import Constants from 'expo-constants';
 import { Calendar } from 'react-native-calendars';
@@ -36,19 +37,33 @@ export default function DietLogScreen() {
       .reduce((sum, m) => sum + (m.calories || 0), 0);
   }, [dayMeals]);
 
-  const fetchDay = useCallback(async (dk) => {
+  // 한 달치를 /api/diet/range 한 번으로 받아 날짜별로 캐시 (날짜 이동 시 재요청 없음)
+  const monthCache = useRef({});
+  const dateKeyRef = useRef(dateKey);
+  dateKeyRef.current = dateKey;
+  const fetchDay = useCallback(async (dk, force = false) => {
+    if (!force && monthCache.current[dk]) {
+      setDayMeals(monthCache.current[dk]);
+      return;
+    }
+    const [y, m] = dk.split('-').map(Number);
+    const mm = String(m).padStart(2, '0');
+    const lastDay = new Date(y, m, 0).getDate();
     try {
-      const rec = await apiGet(`/api/diet/get?date=${dk}`);
-      const details = typeof rec?.mealDetails === 'string'
-        ? JSON.parse(rec.mealDetails || '{}')
-        : rec?.mealDetails || {};
-      const normalized = {
-        morning: Array.isArray(details.morning) ? details.morning : [],
-        lunch:   Array.isArray(details.lunch)   ? details.lunch   : [],
-        dinner:  Array.isArray(details.dinner)  ? details.dinner  : [],
-      };
-      setDayMeals(normalized);
-    } catch (e) {
+      const days = await apiGet(`/api/diet/range?from=${y}-${mm}-01&to=${y}-${mm}-${lastDay}`);
+      for (const day of Array.isArray(days) ? days : []) {
+        const details = typeof day?.mealDetails === 'string'
+          ? JSON.parse(day.mealDetails || '{}')
+          : day?.mealDetails || {};
+        monthCache.current[day.date] = {
+          morning: Array.isArray(details.morning) ? details.morning : [],
+          lunch:   Array.isArray(details.lunch)   ? details.lunch   : [],
+          dinner:  Array.isArray(details.dinner)  ? details.dinner  : [],
+        };
+      }
+      setDayMeals(monthCache.current[dk] || EMPTY_DAY);
+    } catch {
+      // 기록 없으면 빈값
       setDayMeals(EMPTY_DAY);
     }
   }, []);
@@ -59,25 +74,33 @@ export default function DietLogScreen() {
 
   useFocusEffect(
     useCallback(() => {
-      fetchDay(dateKey);
-    }, [fetchDay, dateKey])
+      // 이전에 못 보낸 기록이 있으면 먼저 전송 후 재조회
+      flushDietQueue()
+        .catch(() => {})
+        .finally(() => fetchDay(dateKeyRef.current, true));
+    }, [fetchDay])
   );
 
   const handleAddMeal = async (entry, type) => {
     const payload = { ...entry, timestamp: entry.timestamp ?? Date.now() };
-    setDayMeals(prev => ({
-      morning: type === 'morning' ? [...prev.morning, payload] : prev.morning,
-      lunch:   type === 'lunch'   ? [...prev.lunch,   payload] : prev.lunch,
-      dinner:  type === 'dinner'  ? [...prev.dinner,  payload] : prev.dinner,
-    }));
+    setDayMeals(prev => {
+      const next = {
+        morning: type === 'morning' ? [...prev.morning, payload] : prev.morning,
+        lunch:   type === 'lunch'   ? [...prev.lunch,   payload] : prev.lunch,
+        dinner:  type === 'dinner'  ? [...prev.dinner,  payload] : prev.dinner,
+      };
+      monthCache.current[dateKey] = next;
+      return next;
+    });
     try {
-      await apiPost('/api/diet/save', {
+      await enqueueDietEntry({
         date: dateKey,
         type,
         food: payload.food,
         calories: payload.calories,
         timestamp: payload.timestamp,
       });
+      await flushDietQueue();
     } catch (err) {
       console.error('❌ 백엔드 전송 실패', err?.message || err);
     }
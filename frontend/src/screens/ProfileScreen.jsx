@@ -4,7 +4,7 @@ import AsyncStorage from '@react-native-async-storage/async-storage'
 import * as SecureStore from 'expo-secure-store'
 import { useSafeAreaInsets } from 'react-native-safe-area-context'
 import { useAuth } from '../context/AuthContext'
-import { ORIGIN } from '../config/api'
+import { ORIGIN, refreshAuth } from '../config/api'
 import { useFonts } from 'expo-font'
 import { useNavigation } from '@react-navigation/native'
 import { useI18n } from '../i18n/I18nContext'
@@ -83,20 +83,27 @@ export default function ProfileScreen() {
 
   const fetchFirstOK = useCallback(
     async (method, paths, body) => {
-      const { token, type } = await getAuth()
+      let { token, type } = await getAuth()
+      const send = (p) =>
+        fetch(`${ORIGIN}${p}`, {
+          method,
+          headers: {
+            Accept: 'application/json',
+            ...(body ? { 'Content-Type': 'application/json' } : {}),
+            ...(token ? { Authorization: `${type} ${token}` } : {}),
+          },
+          credentials: 'include',
+          ...(body ? { body: JSON.stringify(body) } : {}),
+        })
       let lastErr
       for (const p of paths) {
         try {
-          const res = await fetch(`${ORIGIN}${p}`, {
-            method,
-            headers: {
-              Accept: 'application/json',
-              ...(body ? { 'Content-Type': 'application/json' } : {}),
-              ...(token ? { Authorization: `${type} ${token}` } : {}),
-            },
-            credentials: 'include',
-            ...(body ? { body: JSON.stringify(body) } : {}),
-          })
+          let res = await send(p)
+          // access 토큰 만료: refresh 토큰으로 재발급 후 한 번 더
+          if (res.status === 401 && token && (await refreshAuth())) {
+            ;({ token, type } = await getAuth())
+            res = await send(p)
+          }
           if (res.ok) {
             const ttxt = await res.text()
             try { return { data: JSON.parse(ttxt), used: p } } catch { return { data: null, used: p } }
@@ -26,8 +26,6 @@ export default function RankingScreen() {
   const [items, setItems] = useState([])
   const [error, setError] = useState('')
 
-  const candidates = ['/ranking']
-
   const pullIds = (arr) =>
     arr
       .map(x => {
@@ -37,47 +35,18 @@ export default function RankingScreen() {
       })
       .filter(Boolean)
 
-  const fetchPaged = async (base) => {
-    let acc = []
-    try {
-      const first = await apiGet(`${base}?page=0&size=200`)
-      if (Array.isArray(first)) return pullIds(first)
-      if (Array.isArray(first?.content)) {
-        acc = pullIds(first.content)
-        const totalPages = Number(first.totalPages ?? 1)
-        for (let p = 1; p < totalPages; p++) {
-          const pageRes = await apiGet(`${base}?page=${p}&size=200`)
-          acc = acc.concat(pullIds(pageRes?.content || []))
-        }
-        return acc
-      }
-      return pullIds(first?.data || first?.users || [])
-    } catch {
-      return []
-    }
-  }
-
-  const fetchOnce = async (path) => {
-    try {
-      const res = await apiGet(path)
-      if (Array.isArray(res)) return pullIds(res)
-      if (Array.isArray(res?.content)) return pullIds(res.content)
-      if (Array.isArray(res?.data)) return pullIds(res.data)
-      if (Array.isArray(res?.users)) return pullIds(res.users)
-      return []
-    } catch {
-      return []
-    }
-  }
-
+  // 서버 keyset 페이지를 next 커서가 없을 때까지 이어서 조회 (서버가 id 순, 대소문자 무시로 정렬해서 줌)
   const fetchAllUsers = useCallback(async () => {
-    for (const p of candidates) {
-      const list = await fetchOnce(p)
-      if (list.length) return list
-      const paged = await fetchPaged(p)
-      if (paged.length) return paged
-    }
-    return []
+    let acc = []
+    let cursor = null
+    do {
+      const qs = cursor ? `?size=200&cursor=${encodeURIComponent(cursor)}` : '?size=200'
+      const res = await apiGet(`/ranking${qs}`)
+      if (Array.isArray(res)) return acc.concat(pullIds(res))
+      acc = acc.concat(pullIds(res?.content || []))
+      cursor = res?.next ?? null
+    } while (cursor)
+    return acc
   }, [])
 
   const load = useCallback(async () => {
@@ -86,7 +55,6 @@ export default function RankingScreen() {
     try {
       const ids = await fetchAllUsers()
       const uniq = Array.from(new Set(ids))
-      uniq.sort((a, b) => a.localeCompare(b, undefined, { sensitivity: 'base' }))
       setItems(uniq)
       if (uniq.length === 0) setError('표시할 사용자가 없습니다.')
     } catch (e) {
@@ -0,0 +1,77 @@
+// 식단 기록 업로드 큐 (오프라인/네트워크 불안정 시 쌓아 두고 /api/diet/batch 로 한 번에 전송)
+// 항목마다 idempotencyKey 를 붙여 재전송해도 서버에서 중복 적용되지 않음
+// 큐는 로그인한 사용자(last_user_id)별 키에 저장: 다른 계정 토큰으로 전송되지 않도록 함
+import AsyncStorage from '@react-native-async-storage/async-storage'
+import { apiPost } from '../config/api'
+
+const LEGACY_QUEUE_KEY = 'diet_upload_queue' // 사용자 구분 없던 이전 큐 (주인을 알 수 없어 버림)
+const MAX_BATCH = 200
+
+let flushing = null
+
+const newKey = () => `${Date.now().toString(36)}-${Math.random().toString(36).slice(2, 12)}`
+
+const queueKey = (userId) => `diet_upload_queue_${String(userId).replace(/[^a-zA-Z0-9._-]/g, '_')}`
+
+async function currentUserId() {
+  try {
+    return (await AsyncStorage.getItem('last_user_id')) || null
+  } catch {
+    return null
+  }
+}
+
+async function readQueue(key) {
+  try {
+    const raw = await AsyncStorage.getItem(key)
+    const queue = raw ? JSON.parse(raw) : []
+    return Array.isArray(queue) ? queue : []
+  } catch {
+    return []
+  }
+}
+
+export async function enqueueDietEntry(entry) {
+  const userId = await currentUserId()
+  if (!userId) throw new Error('로그인이 필요합니다.')
+  const key = queueKey(userId)
+  const queue = await readQueue(key)
+  queue.push({ ...entry, idempotencyKey: entry.idempotencyKey ?? newKey() })
+  await AsyncStorage.setItem(key, JSON.stringify(queue))
+}
+
+// 로그아웃 시 해당 사용자의 남은 큐 삭제 (이전 버전의 공용 큐도 함께)
+export async function clearDietQueue(userId) {
+  const keys = [LEGACY_QUEUE_KEY]
+  if (userId) keys.push(queueKey(userId))
+  try { await AsyncStorage.multiRemove(keys) } catch {}
+}
+
+// 동시에 여러 번 호출돼도 전송은 하나만 진행
+export function flushDietQueue() {
+  if (!flushing) {
+    flushing = doFlush().finally(() => { flushing = null })
+  }
+  return flushing
+}
+
+async function doFlush() {
+  const userId = await currentUserId()
+  if (!userId) return null
+  const key = queueKey(userId)
+  let last = null
+  for (;;) {
+    const queue = await readQueue(key)
+    if (!queue.length) return last
+    // 전송 도중 계정이 바뀌면 중단 (남은 항목을 다른 계정 토큰으로 보내지 않음)
+    if ((await currentUserId()) !== userId) return last
+    const batch = queue.slice(0, MAX_BATCH)
+    // 실패하면 큐를 그대로 두고 다음 기회에 같은 키로 재전송
+    last = await apiPost('/api/diet/batch', { entries: batch })
+
+    // applied / duplicate / invalid 모두 재전송할 필요 없으므로 제거 (전송 중 추가된 항목은 유지)
+    const sent = new Set(batch.map(e => e.idempotencyKey))
+    const latest = await readQueue(key)
+    await AsyncStorage.setItem(key, JSON.stringify(latest.filter(e => !sent.has(e.idempotencyKey))))
+  }
+}